@@ -0,0 +1,307 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+
+import com.thoughtpropulsion.benchmarks.Inputs;
+import com.thoughtpropulsion.benchmarks.Subjects;
+
+import io.vavr.Function2;
+import io.vavr.collection.HashMap;
+import io.vavr.control.Validation;
+
+/*
+ Default package side of the Subjects bridge. See Subjects for why this exists.
+ */
+public class BenchmarkSubjects implements Subjects {
+
+    @Override
+    public Object constructSSN(final String ssn) {
+        try {
+            return ImmutableSSN.of(ssn);
+        } catch (final IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Override
+    public Object constructID(final String id) {
+        try {
+            return ImmutableID.of(id);
+        } catch (final IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Override
+    public Object constructPerson(final String ssn, final String id,
+                                  final String firstName, final String lastName, final int age) {
+        try {
+            return ImmutablePerson.builder().firstName(firstName).lastName(lastName).age(age).build();
+        } catch (final IllegalStateException e) {
+            return e;
+        }
+    }
+
+    @Override
+    public Object ssnBuildValidation(final String ssn) {
+        return SSN.buildValidation(ImmutableSSN.builder().ssn(ssn));
+    }
+
+    @Override
+    public Object idBuildValidation(final String id) {
+        return ID.buildValidation(ImmutableID.builder().id(id));
+    }
+
+    @Override
+    public Object personBuildValidation(final String ssn, final String id,
+                                        final String firstName, final String lastName, final int age) {
+        return Person.buildValidation(ImmutablePerson.builder().firstName(firstName).lastName(lastName).age(age));
+    }
+
+    @Override
+    public Object ssnBuildViolations(final String ssn) {
+        return SSN.buildViolations(ImmutableSSN.builder().ssn(ssn));
+    }
+
+    @Override
+    public Object idBuildViolations(final String id) {
+        return ID.buildViolations(ImmutableID.builder().id(id));
+    }
+
+    @Override
+    public Object personBuildViolations(final String ssn, final String id,
+                                        final String firstName, final String lastName, final int age) {
+        return Person.buildViolations(ImmutablePerson.builder().firstName(firstName).lastName(lastName).age(age));
+    }
+
+    @Override
+    public Object person2Factory(final String ssn, final String id,
+                                 final String firstName, final String lastName, final int age) {
+        return new Person2ValidationBuilder().firstName(firstName).lastName(lastName).age(age).build();
+    }
+
+    @Override
+    public Object twoPhasePerson(final String ssn, final String id,
+                                 final String firstName, final String lastName, final int age) {
+        return twoPhase(ssn, id, (ssnv, idv) -> {
+            final ImmutablePerson.Builder builder =
+                    ImmutablePerson.builder().firstName(firstName).lastName(lastName).age(age);
+            ssnv.peek(builder::setValueSsn);
+            idv.peek(builder::setValueId);
+            return Person.buildValidation(builder);
+        });
+    }
+
+    @Override
+    public Object twoPhasePerson2(final String ssn, final String id,
+                                  final String firstName, final String lastName, final int age) {
+        return twoPhase(ssn, id, (ssnv, idv) -> {
+            final Person2ValidationBuilder builder =
+                    new Person2ValidationBuilder().firstName(firstName).lastName(lastName).age(age);
+            ssnv.peek(s -> builder.ssn(Optional.of(s)));
+            idv.peek(i -> builder.id(Optional.of(i)));
+            return builder.build();
+        });
+    }
+
+    @Override
+    public Object builtPerson(final String ssn, final String id,
+                              final String firstName, final String lastName, final int age, final boolean pooled) {
+        if (pooled) {
+            return Person.buildViolations(SSN.buildViolations(ssn).toOption(), ID.buildViolations(id).toOption(),
+                                          firstName, lastName, age);
+        }
+        return Person.buildViolations(ImmutablePerson.builder()
+                                                     .ssn(SSN.buildViolations(ImmutableSSN.builder().ssn(ssn)).toOption())
+                                                     .id(ID.buildViolations(ImmutableID.builder().id(id)).toOption())
+                                                     .firstName(firstName).lastName(lastName).age(age));
+    }
+
+    @Override
+    public Object bulkValidate(final Inputs in, final int rows, final Executor executor, final int parallelism) {
+        final int size = in.ssns.length;
+        final long[] valid = new long[1];
+        BulkValidator.on(executor, parallelism).validatePersons(
+                () -> IntStream.range(0, rows)
+                               .map(i -> i % size)
+                               .mapToObj(i -> RawPerson.of(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]))
+                               .iterator(),
+                person -> valid[0]++,
+                (violations, row) -> {});
+        return valid[0];
+    }
+
+    @Override
+    public Object loadMapped(final Path csv) throws IOException {
+        final long[] valid = new long[1];
+        new MappedLoader().load(csv, person -> valid[0]++, (violations, offset) -> {});
+        return valid[0];
+    }
+
+    // reloaded in place, like a periodically refreshed table
+    private static final ThreadLocal<PersonTable> tables = ThreadLocal.withInitial(() -> new PersonTable(1024));
+
+    @Override
+    public Object loadMappedIntoTable(final Path csv) throws IOException {
+        final PersonTable table = tables.get();
+        table.clear();
+        new MappedLoader().load(csv, table, (violations, offset) -> {});
+        return table.size();
+    }
+
+    @Override
+    public Object loadStrings(final Path csv) throws IOException {
+        long valid = 0;
+        try (final BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                if (!line.isEmpty() && MappedLoader.parseRow(line).isValid()) {
+                    valid++;
+                }
+            }
+        }
+        return valid;
+    }
+
+    @Override
+    public Object codecPerson(final String ssn, final String id,
+                              final String firstName, final String lastName, final int age) {
+        return RawPerson.of(ssn, id, firstName, lastName, age).toPerson().get();
+    }
+
+    @Override
+    public Object binaryRoundTrip(final Object person, final ByteBuffer buffer, final boolean trusted) {
+        buffer.clear();
+        BinaryCodec.write((Person) person, buffer);
+        buffer.flip();
+        return BinaryCodec.readPerson(buffer, trusted ? BinaryCodec.Trust.TRUSTED : BinaryCodec.Trust.UNTRUSTED);
+    }
+
+    @Override
+    public Object jsonRoundTrip(final Object person) {
+        return Json.read(Json.write((Person) person)).toPerson();
+    }
+
+    @Override
+    public Object household(final int members) {
+        HashMap<ID, Person> people = HashMap.empty();
+        for (int i = 0; i < members; i++) {
+            final Person person = (Person) householdMember(i, i);
+            people = people.put(person.id().get(), person);
+        }
+        return ImmutableHousehold.builder().members(people).build();
+    }
+
+    @Override
+    public Object householdMember(final int i, final int ssn) {
+        return RawPerson.of(String.format("%03d-%02d-%04d", ssn / 1_000_000, ssn / 10_000 % 100, ssn % 10_000),
+                            "p" + i, "Lucy", "Ricardo", 30).toPerson().get();
+    }
+
+    @Override
+    public Object householdWithMember(final Object household, final Object member, final boolean incremental) {
+        final Household h = (Household) household;
+        final Person person = (Person) member;
+        return incremental ?
+               h.withMember(person) :
+               Household.buildViolations(ImmutableHousehold.builder().members(h.members().put(person.id().get(), person)));
+    }
+
+    @Override
+    public Object footprintSubject(final String kind, final int i) {
+        final String ssn = String.format("%03d-%02d-%04d", i / 1_000_000, i / 10_000 % 100, i % 10_000);
+        final String id = "id-" + i;
+        final String firstName = new String("Lucy");
+        final String lastName = new String("Ricardo");
+        switch (kind) {
+            case "SSN": return ImmutableSSN.of(ssn);
+            case "PackedSSN": return PackedSSN.buildViolations(ssn).get();
+            case "ID": return ImmutableID.of(id);
+            case "Person": return RawPerson.of(ssn, id, firstName, lastName, 30).toPerson().get();
+            case "CompactPerson": return RawPerson.of(ssn, id, firstName, lastName, 30).toPerson().get().compact();
+            case "Person2": return Person2.person2Validation(Optional.of(ImmutableID.of(id)), firstName, lastName, 30,
+                                                             Optional.of(ImmutableSSN.of(ssn))).get();
+            default: throw new IllegalArgumentException(String.format("No footprint subject '%s'.", kind));
+        }
+    }
+
+    /*
+     The plain JSON baseline: a flat object of the raw fields, written with a StringBuilder and read back
+     with a hand-written scanner (no library in the way), then revalidated from scratch through RawPerson.
+     */
+    private static final class Json {
+        static String write(final Person person) {
+            final StringBuilder json = new StringBuilder(128).append('{');
+            person.ssn().peek(ssn -> string(json.append("\"ssn\":"), ssn.toString()).append(','));
+            person.id().peek(id -> string(json.append("\"id\":"), id.toString()).append(','));
+            string(json.append("\"firstName\":"), person.firstName()).append(',');
+            string(json.append("\"lastName\":"), person.lastName()).append(',');
+            return json.append("\"age\":").append(person.age()).append('}').toString();
+        }
+
+        static RawPerson read(final String json) {
+            String ssn = null, id = null, firstName = null, lastName = null;
+            int age = 0;
+            int i = 1; // past '{'
+            while (json.charAt(i) != '}') {
+                final int keyEnd = json.indexOf('"', i + 1);
+                final String key = json.substring(i + 1, keyEnd);
+                i = keyEnd + 2; // past '":'
+                if ("age".equals(key)) {
+                    int end = i;
+                    while (json.charAt(end) != ',' && json.charAt(end) != '}') {
+                        end++;
+                    }
+                    age = Integer.parseInt(json.substring(i, end));
+                    i = end;
+                } else {
+                    final StringBuilder value = new StringBuilder();
+                    i++; // past '"'
+                    for (char c; (c = json.charAt(i)) != '"'; i++) {
+                        value.append(c == '\\' ? json.charAt(++i) : c);
+                    }
+                    i++;
+                    switch (key) {
+                        case "ssn": ssn = value.toString(); break;
+                        case "id": id = value.toString(); break;
+                        case "firstName": firstName = value.toString(); break;
+                        default: lastName = value.toString(); break;
+                    }
+                }
+                if (json.charAt(i) == ',') {
+                    i++;
+                }
+            }
+            return RawPerson.of(ssn, id, firstName, lastName, age);
+        }
+
+        private static StringBuilder string(final StringBuilder json, final String value) {
+            json.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json.append('\\');
+                }
+                json.append(c);
+            }
+            return json.append('"');
+        }
+    }
+
+    // same shape as ImmutableConstructionValidationTest.constructPerson()
+    private static <PersonType> Validation<String, PersonType> twoPhase(
+            final String ssnString, final String idString,
+            final Function2<Validation<String, SSN>, Validation<String, ID>, Validation<String, PersonType>>
+                    createPersonValidation) {
+        final Validation<String, SSN> ssnv = SSN.buildValidation(ImmutableSSN.builder().ssn(ssnString));
+        final Validation<String, ID> idv = ID.buildValidation(ImmutableID.builder().id(idString));
+        final Validation<String, PersonType> pv = createPersonValidation.apply(ssnv, idv);
+        return Validation.combine(ssnv, idv, pv).ap((_ssn, _id, p) -> p).mapError(Validations::combineErrors);
+    }
+}
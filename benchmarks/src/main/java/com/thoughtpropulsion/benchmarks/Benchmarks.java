@@ -0,0 +1,35 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/*
+ Entry point of benchmarks.jar: the regular JMH command line, with the GC/allocation profiler
+ switched on unless it was asked for already.
+     java -jar benchmarks/target/benchmarks.jar -p invalidPercent=0,10,90 BuildValidation
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {}
+
+    public static void main(final String[] args) throws Exception {
+        final List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!hasGcProfiler(arguments)) {
+            arguments.add("-prof");
+            arguments.add("gc");
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+
+    private static boolean hasGcProfiler(final List<String> arguments) {
+        for (int i = 0; i < arguments.size() - 1; i++) {
+            if ("-prof".equals(arguments.get(i)) && arguments.get(i + 1).startsWith("gc")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,56 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ Foo.buildValidation() (rendered String errors) next to Foo.buildViolations() (unrendered Violations).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildValidationBenchmark {
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+
+    @Benchmark
+    public Object ssnValidation(final Inputs in) {
+        return subjects.ssnBuildValidation(in.ssns[in.next()]);
+    }
+
+    @Benchmark
+    public Object ssnViolations(final Inputs in) {
+        return subjects.ssnBuildViolations(in.ssns[in.next()]);
+    }
+
+    @Benchmark
+    public Object idValidation(final Inputs in) {
+        return subjects.idBuildValidation(in.ids[in.next()]);
+    }
+
+    @Benchmark
+    public Object idViolations(final Inputs in) {
+        return subjects.idBuildViolations(in.ids[in.next()]);
+    }
+
+    @Benchmark
+    public Object personValidation(final Inputs in) {
+        final int i = in.next();
+        return subjects.personBuildValidation(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]);
+    }
+
+    @Benchmark
+    public Object personViolations(final Inputs in) {
+        final int i = in.next();
+        return subjects.personBuildViolations(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]);
+    }
+}
@@ -0,0 +1,37 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ A whole Person (SSN, ID, then the entity) through buildViolations(), on three fresh builders per
+ operation against this thread's pooled ones. Compare the two on gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderPoolBenchmark {
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+
+    @Benchmark
+    public Object fresh(final Inputs in) {
+        final int i = in.next();
+        return subjects.builtPerson(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i], false);
+    }
+
+    @Benchmark
+    public Object pooled(final Inputs in) {
+        final int i = in.next();
+        return subjects.builtPerson(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i], true);
+    }
+}
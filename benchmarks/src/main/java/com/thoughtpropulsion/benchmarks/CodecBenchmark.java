@@ -0,0 +1,70 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ A valid Person written out and read back: BinaryCodec trusting the record, BinaryCodec revalidating it,
+ and the plain JSON round trip (String out, parse, revalidate) it's meant to replace between our own services.
+
+ Every person is a 30-year-old with an SSN and an ID, so every attribute and rule is exercised.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+    private static final int SIZE = 1024; // power of 2
+
+    @Param({"false", "true"})
+    public boolean direct;
+
+    private Object[] persons;
+    private ByteBuffer buffer;
+    private int next;
+
+    @Setup
+    public void setup() {
+        persons = new Object[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            persons[i] = subjects.codecPerson(String.format("%03d-%02d-%04d", i % 1000, i % 100, i),
+                                              "id-" + i, "Lucy", "Ricardo", 30);
+        }
+        buffer = direct ? ByteBuffer.allocateDirect(256) : ByteBuffer.allocate(256);
+    }
+
+    private Object person() {
+        return persons[next = (next + 1) & (SIZE - 1)];
+    }
+
+    @Benchmark
+    public Object binaryTrusted() {
+        return subjects.binaryRoundTrip(person(), buffer, true);
+    }
+
+    @Benchmark
+    public Object binaryUntrusted() {
+        return subjects.binaryRoundTrip(person(), buffer, false);
+    }
+
+    @Benchmark
+    public Object json() {
+        return subjects.jsonRoundTrip(person());
+    }
+}
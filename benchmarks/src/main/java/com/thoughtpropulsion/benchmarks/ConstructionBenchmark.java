@@ -0,0 +1,40 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ Plain construction through the generated ImmutableFoo.of() and build(), where check() throws on bad input.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+
+    @Benchmark
+    public Object ssn(final Inputs in) {
+        return subjects.constructSSN(in.ssns[in.next()]);
+    }
+
+    @Benchmark
+    public Object id(final Inputs in) {
+        return subjects.constructID(in.ids[in.next()]);
+    }
+
+    @Benchmark
+    public Object person(final Inputs in) {
+        final int i = in.next();
+        return subjects.constructPerson(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]);
+    }
+}
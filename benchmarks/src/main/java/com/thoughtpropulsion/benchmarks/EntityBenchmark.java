@@ -0,0 +1,43 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ Entity construction paths: the Person2ValidationBuilder factory builder, and the two-phase
+ string-to-entity flow (primitives first, then the entity, then all errors combined).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityBenchmark {
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+
+    @Benchmark
+    public Object person2Factory(final Inputs in) {
+        final int i = in.next();
+        return subjects.person2Factory(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]);
+    }
+
+    @Benchmark
+    public Object twoPhasePerson(final Inputs in) {
+        final int i = in.next();
+        return subjects.twoPhasePerson(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]);
+    }
+
+    @Benchmark
+    public Object twoPhasePerson2(final Inputs in) {
+        final int i = in.next();
+        return subjects.twoPhasePerson2(in.ssns[i], in.ids[i], in.firstNames[i], in.lastNames[i], in.ages[i]);
+    }
+}
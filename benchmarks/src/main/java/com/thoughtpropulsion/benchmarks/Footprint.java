@@ -0,0 +1,58 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/*
+ Retained heap per instance of each value type: count typical instances are held at once, and the
+ used heap after a full GC is compared before and after. That's everything an instance keeps alive,
+ Options, nested value objects and Strings included, which is what a million of them really cost.
+ (JOL would also break it down by class, but isn't needed for the totals.)
+
+ Every instance gets Strings of its own, so none of it is shared between instances and each one is
+ charged for its own characters. Persons are 30 years old with an SSN and an ID, so every attribute
+ is present.
+
+     java -Xms2g -Xmx2g -XX:+UseSerialGC -cp benchmarks/target/benchmarks.jar com.thoughtpropulsion.benchmarks.Footprint [count]
+
+ A fixed heap and the serial collector keep the numbers steady from run to run.
+ */
+public final class Footprint {
+
+    private static final String[] KINDS = {"SSN", "PackedSSN", "ID", "Person", "CompactPerson", "Person2"};
+
+    private Footprint() {}
+
+    public static void main(final String[] args) throws InterruptedException {
+        final int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        final Subjects subjects = Subjects.INSTANCE;
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.out.printf("%-14s %10s %14s%n", "", "bytes each", "MB per million");
+        for (final String kind : KINDS) {
+            subjects.footprintSubject(kind, 0); // load and initialize everything involved first
+            final long before = used(memory);
+            final Object[] held = new Object[count];
+            for (int i = 0; i < count; i++) {
+                held[i] = subjects.footprintSubject(kind, i);
+            }
+            final long after = used(memory);
+            // the array itself isn't part of any instance
+            final double each = (after - before - (16.0 + 4.0 * count)) / count;
+            System.out.printf("%-14s %10.1f %14.1f%n", kind, each, each * 1_000_000 / (1 << 20));
+            if (held[count - 1] == null) {
+                throw new AssertionError(); // keeps held reachable through the measurement
+            }
+        }
+    }
+
+    private static long used(final MemoryMXBean memory) throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,62 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ One member of a household replaced: with Household.withMember(), which checks just that member
+ against the rest, and by building the new members map into a new Household, which checks them all.
+ The incremental one should stay flat as members grows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HouseholdBenchmark {
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+
+    @Param({"10", "1000", "100000"})
+    public int members;
+
+    private Object household;
+    private Object[] replacements;
+    private int next;
+
+    @Setup
+    public void setup() {
+        household = subjects.household(members);
+        replacements = new Object[Math.min(members, 1024)];
+        for (int i = 0; i < replacements.length; i++) {
+            replacements[i] = subjects.householdMember(i, members + i);
+        }
+    }
+
+    private Object replacement() {
+        next = next + 1 == replacements.length ? 0 : next + 1;
+        return replacements[next];
+    }
+
+    @Benchmark
+    public Object incremental() {
+        return subjects.householdWithMember(household, replacement(), true);
+    }
+
+    @Benchmark
+    public Object full() {
+        return subjects.householdWithMember(household, replacement(), false);
+    }
+}
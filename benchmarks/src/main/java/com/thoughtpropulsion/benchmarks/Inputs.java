@@ -0,0 +1,57 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/*
+ Raw person fields, with a configurable share of invalid rows (-p invalidPercent=...).
+
+ Valid rows are 12-year-olds, so Person needs no SSN. Invalid rows break every rule at once: a badly
+ formatted SSN, a blank ID, a too-long name and a 20-year-old without an SSN. Rows are shuffled so
+ branch prediction can't learn the mix.
+ */
+@State(Scope.Thread)
+public class Inputs {
+
+    private static final int SIZE = 1024; // power of 2
+    private static final int MASK = SIZE - 1;
+
+    @Param({"0", "50", "100"})
+    public int invalidPercent;
+
+    public String[] ssns;
+    public String[] ids;
+    public String[] firstNames;
+    public String[] lastNames;
+    public int[] ages;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        ssns = new String[SIZE];
+        ids = new String[SIZE];
+        firstNames = new String[SIZE];
+        lastNames = new String[SIZE];
+        ages = new int[SIZE];
+        final Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            final boolean invalid = random.nextInt(100) < invalidPercent;
+            // fresh Strings per row, as if they came off the wire
+            ssns[i] = new String(invalid ? "111-2x-3333" : String.format("%03d-%02d-%04d", i % 1000, i % 100, i));
+            ids[i] = new String(invalid ? "" : "id-" + i);
+            firstNames[i] = new String(invalid ? "John" : "Lucy");
+            lastNames[i] = new String(invalid ? "Jacob Jingleheimerschmidt" : "Ricardo");
+            ages[i] = invalid ? 20 : 12;
+        }
+    }
+
+    // index of the row to use for this invocation
+    public int next() {
+        return next = (next + 1) & MASK;
+    }
+}
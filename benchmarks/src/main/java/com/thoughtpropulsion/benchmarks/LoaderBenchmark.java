@@ -0,0 +1,96 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ Loading a CSV file of persons: MappedLoader (into Persons, and into a PersonTable) against reading
+ it a line at a time as Strings. The file is written once per trial, so it's in the page cache and
+ this measures parsing and validation rather than the disk.
+
+ Throughput is reported in files per second and, through the megabytes counter, in MB/s.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoaderBenchmark {
+
+    private static final int ROWS = 200_000;
+
+    private static final Subjects subjects = Subjects.INSTANCE;
+
+    @Param({"0", "50", "100"})
+    public int invalidPercent;
+
+    private Path csv;
+    private double megabytes;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public double megabytes;
+    }
+
+    // valid and invalid rows as in Inputs: the invalid ones break every rule at once
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        csv = Files.createTempFile("persons", ".csv");
+        final Random random = new Random(42);
+        try (final Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < ROWS; i++) {
+                if (random.nextInt(100) < invalidPercent) {
+                    writer.write("111-2x-3333, ,John,Jacob Jingleheimerschmidt,20\n");
+                } else {
+                    writer.write(String.format("%03d-%02d-%04d,id-%d,Lucy,Ricardo,12%n", i % 1000, i % 100, i % 10000, i));
+                }
+            }
+        }
+        megabytes = Files.size(csv) / 1e6;
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.delete(csv);
+    }
+
+    @Benchmark
+    public Object mapped(final Bytes bytes) throws IOException {
+        bytes.megabytes += megabytes;
+        return subjects.loadMapped(csv);
+    }
+
+    @Benchmark
+    public Object mappedIntoTable(final Bytes bytes) throws IOException {
+        bytes.megabytes += megabytes;
+        return subjects.loadMappedIntoTable(csv);
+    }
+
+    @Benchmark
+    public Object strings(final Bytes bytes) throws IOException {
+        bytes.megabytes += megabytes;
+        return subjects.loadStrings(csv);
+    }
+}
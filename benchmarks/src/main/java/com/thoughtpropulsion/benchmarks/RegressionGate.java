@@ -0,0 +1,121 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ Runs the benchmarks and compares them against a recorded baseline. Exits with status 1 if any
+ benchmark lost more than the tolerated share of its throughput, or allocates more per operation, or
+ has no baseline at all: a benchmark added without re-recording would otherwise never be gated.
+
+ Allocation per operation is the steadier signal of the two: it hardly depends on the machine, so it's
+ worth gating on even where throughput numbers are too noisy to trust.
+
+     java -cp benchmarks/target/benchmarks.jar com.thoughtpropulsion.benchmarks.RegressionGate \
+          [--record] [--baseline benchmarks/baseline.properties] [--tolerance 0.10] [include-regex]
+
+ --record writes the current results as the new baseline instead of comparing.
+ */
+public final class RegressionGate {
+
+    private static final String SCORE = ".score";
+    private static final String ALLOCATION = ".alloc";
+
+    private RegressionGate() {}
+
+    public static void main(final String[] args) throws IOException, RunnerException {
+        boolean record = false;
+        Path baselinePath = Paths.get("benchmarks", "baseline.properties");
+        double tolerance = 0.10;
+        String include = ".*";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--record": record = true; break;
+                case "--baseline": baselinePath = Paths.get(args[++i]); break;
+                case "--tolerance": tolerance = Double.parseDouble(args[++i]); break;
+                default: include = args[i];
+            }
+        }
+
+        final Collection<RunResult> results =
+                new Runner(new OptionsBuilder().include(include).addProfiler(GCProfiler.class).build()).run();
+        final Map<String,Double> measured = measurements(results);
+
+        if (record) {
+            // written by hand rather than with Properties.store() so keys stay sorted and diffs stay readable
+            final List<String> lines = new ArrayList<>();
+            lines.add("# RegressionGate baseline: throughput (.score) in ops/us, allocation (.alloc) in bytes/op");
+            measured.forEach((key, value) -> lines.add(key.replace("=", "\\=") + "=" + value));
+            Files.write(baselinePath, lines);
+            return;
+        }
+
+        final Properties baseline = new Properties();
+        try (InputStream in = Files.newInputStream(baselinePath)) {
+            baseline.load(in);
+        }
+        final List<String> regressions = compare(baseline, measured, tolerance);
+        regressions.forEach(System.err::println);
+        if (!regressions.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    static List<String> compare(final Properties baseline, final Map<String,Double> measured, final double tolerance) {
+        final List<String> regressions = new ArrayList<>();
+        measured.forEach((key, value) -> {
+            final String expected = baseline.getProperty(key);
+            if (null == expected) {
+                regressions.add(String.format("%s has no baseline: re-record it with --record", key));
+                return;
+            }
+            final double before = Double.parseDouble(expected);
+            final boolean regressed = key.endsWith(SCORE) ?
+                                      value < before * (1 - tolerance) :
+                                      // a few bytes of slack so 0 bytes/op baselines don't trip on noise
+                                      value > before * (1 + tolerance) + 8;
+            if (regressed) {
+                regressions.add(String.format("%s regressed: baseline %.3f, measured %.3f", key, before, value));
+            }
+        });
+        return regressions;
+    }
+
+    private static Map<String,Double> measurements(final Collection<RunResult> results) {
+        final Map<String,Double> measured = new TreeMap<>();
+        for (final RunResult result : results) {
+            final StringBuilder key = new StringBuilder(result.getParams().getBenchmark());
+            for (final String param : result.getParams().getParamsKeys()) {
+                key.append('[').append(param).append('=').append(result.getParams().getParam(param)).append(']');
+            }
+            measured.put(key + SCORE, result.getPrimaryResult().getScore());
+            final Result<?> allocation = allocation(result.getSecondaryResults());
+            if (null != allocation) {
+                measured.put(key + ALLOCATION, allocation.getScore());
+            }
+        }
+        return measured;
+    }
+
+    private static Result<?> allocation(final Map<String,Result> secondary) {
+        // older JMH versions prefix profiler results with a middle dot
+        final Result<?> allocation = secondary.get("gc.alloc.rate.norm");
+        return null != allocation ? allocation : secondary.get("·gc.alloc.rate.norm");
+    }
+}
@@ -0,0 +1,76 @@
+package com.thoughtpropulsion.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/*
+ The operations under measurement.
+
+ JMH refuses benchmark classes in the default package, and classes in a named package can't refer to
+ the (default package) classes under test. So benchmarks call through this interface, implemented by
+ BenchmarkSubjects in the default package. With a single implementation loaded, the JIT inlines
+ straight through it.
+
+ Everything returns Object so JMH can sink it into a Blackhole.
+ */
+public interface Subjects {
+
+    Subjects INSTANCE = load();
+
+    // ImmutableFoo.of() / build(): throwing construction, returns the exception on invalid input
+    Object constructSSN(String ssn);
+    Object constructID(String id);
+    Object constructPerson(String ssn, String id, String firstName, String lastName, int age);
+
+    // Foo.buildValidation(): Validation<String,Foo>
+    Object ssnBuildValidation(String ssn);
+    Object idBuildValidation(String id);
+    Object personBuildValidation(String ssn, String id, String firstName, String lastName, int age);
+
+    // Foo.buildViolations(): Validation<Seq<Violation>,Foo>
+    Object ssnBuildViolations(String ssn);
+    Object idBuildViolations(String id);
+    Object personBuildViolations(String ssn, String id, String firstName, String lastName, int age);
+
+    // Person2ValidationBuilder factory path
+    Object person2Factory(String ssn, String id, String firstName, String lastName, int age);
+
+    // the two-phase string-to-entity flow from ImmutableConstructionValidationTest.constructPerson()
+    Object twoPhasePerson(String ssn, String id, String firstName, String lastName, int age);
+    Object twoPhasePerson2(String ssn, String id, String firstName, String lastName, int age);
+
+    // SSN, ID and then Person through buildViolations(), on fresh builders or on this thread's pooled ones
+    Object builtPerson(String ssn, String id, String firstName, String lastName, int age, boolean pooled);
+
+    // BulkValidator over the given number of rows cycled from in; returns the count of valid rows
+    Object bulkValidate(Inputs in, int rows, Executor executor, int parallelism);
+
+    // loading a ssn,id,firstName,lastName,age CSV file; each returns the count of valid rows
+    Object loadMapped(Path csv) throws IOException;          // MappedLoader, valid rows as Persons
+    Object loadMappedIntoTable(Path csv) throws IOException; // MappedLoader straight into a PersonTable
+    Object loadStrings(Path csv) throws IOException;         // a line at a time, as Strings, through MappedLoader.parseRow()
+
+    // moving a valid person (with an SSN and an ID) across a process boundary and back
+    Object codecPerson(String ssn, String id, String firstName, String lastName, int age);
+    Object binaryRoundTrip(Object person, ByteBuffer buffer, boolean trusted); // BinaryCodec, from buffer's start
+    Object jsonRoundTrip(Object person);                                       // a JSON String, reparsed and revalidated
+
+    // a valid Household of members; member i has ID "p<i>" and the i-th SSN
+    Object household(int members);
+    Object householdMember(int i, int ssn);
+    // household with member put in, through withMember() (incremental) or a whole new Household
+    Object householdWithMember(Object household, Object member, boolean incremental);
+
+    // instance i of one of Footprint's kinds, with Strings of its own
+    Object footprintSubject(String kind, int i);
+
+    static Subjects load() {
+        try {
+            return (Subjects) Class.forName("BenchmarkSubjects").getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("can't load BenchmarkSubjects", e);
+        }
+    }
+}
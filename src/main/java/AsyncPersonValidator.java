@@ -0,0 +1,70 @@
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+/*
+ Validates RawPersons against Person's rules plus two that need lookups: the id must exist, and
+ the SSN must not already be registered.
+
+ The synchronous rules run on executor (give it a bounded pool, or virtual threads where the
+ runtime has them). The lookups then go out through BatchingLookups, so many concurrent
+ validations share a few round trips, and no thread waits on them.
+
+ As with RawPerson.toPerson(), violations accumulate: lookup failures are reported alongside
+ any rule failures. A value that's already invalid (a malformed SSN, say) isn't looked up. The rules
+ are those of the RuleSet in force where validate() is called, not on the executor's thread.
+ */
+public final class AsyncPersonValidator {
+    private static final CompletableFuture<Validation<Violation,Option<ID>>> noID =
+            CompletableFuture.completedFuture(Validation.valid(Option.none()));
+    private static final CompletableFuture<Validation<Violation,Option<SSN>>> noSSN =
+            CompletableFuture.completedFuture(Validation.valid(Option.none()));
+
+    private final Executor executor;
+    private final BatchingLookup<ID> existingIDs;
+    private final BatchingLookup<SSN> registeredSSNs;
+
+    public AsyncPersonValidator(final Executor executor,
+                                final BatchingLookup<ID> existingIDs,
+                                final BatchingLookup<SSN> registeredSSNs) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.existingIDs = Objects.requireNonNull(existingIDs, "existingIDs");
+        this.registeredSSNs = Objects.requireNonNull(registeredSSNs, "registeredSSNs");
+    }
+
+    public CompletableFuture<Validation<Seq<Violation>,Person>> validate(final RawPerson raw) {
+        final RuleSet rules = Checks.rules();
+        return CompletableFuture.supplyAsync(() -> Checks.under(rules, () -> new Phase(raw)), executor).thenCompose(phase -> {
+            final CompletableFuture<Validation<Violation,Option<ID>>> idv =
+                    phase.idv.isValid() && phase.idv.get().isDefined() ?
+                    AsyncRules.exists(existingIDs, phase.idv.get().get(), "id").thenApply(v -> v.map(Option::some)) :
+                    noID;
+            final CompletableFuture<Validation<Violation,Option<SSN>>> ssnv =
+                    phase.ssnv.isValid() && phase.ssnv.get().isDefined() ?
+                    AsyncRules.notRegistered(registeredSSNs, phase.ssnv.get().get(), "ssn").thenApply(v -> v.map(Option::some)) :
+                    noSSN;
+            return idv.thenCombine(ssnv, (id, ssn) ->
+                    Validation.combine(phase.pv, id.mapError(List::of), ssn.mapError(List::of))
+                              .ap((p, _id, _ssn) -> p)
+                              .mapError(Rules::combine));
+        });
+    }
+
+    // the synchronous rules, exactly as RawPerson.toPerson() runs them
+    private static final class Phase {
+        final Validation<Seq<Violation>,Option<SSN>> ssnv;
+        final Validation<Seq<Violation>,Option<ID>> idv;
+        final Validation<Seq<Violation>,Person> pv;
+
+        Phase(final RawPerson raw) {
+            ssnv = raw.ssnValidation();
+            idv = raw.idValidation();
+            pv = raw.toPerson(ssnv, idv);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+import java.util.concurrent.CompletableFuture;
+
+import io.vavr.control.Validation;
+
+/*
+ Rules that need a lookup, and so answer asynchronously. Like Rules they return typed Violations,
+ just in a CompletableFuture. Lookups go through a BatchingLookup, so concurrent validations share
+ round trips.
+ */
+public final class AsyncRules {
+
+    private AsyncRules() {}
+
+    // key must be known to lookup, e.g. an ID must refer to an existing entity
+    public static <K> CompletableFuture<Validation<Violation,K>> exists(
+            final BatchingLookup<K> lookup, final K key, final String parameterName) {
+        return lookup.exists(key).thenApply(found -> {
+            Metrics.record(RuleId.EXISTS, parameterName, found);
+            return found ? Validation.valid(key) : Validation.invalid(Violation.of(RuleId.EXISTS, parameterName, key));
+        });
+    }
+
+    // key must not be known to lookup, e.g. an SSN must not already be registered
+    public static <K> CompletableFuture<Validation<Violation,K>> notRegistered(
+            final BatchingLookup<K> lookup, final K key, final String parameterName) {
+        return lookup.exists(key).thenApply(found -> {
+            Metrics.record(RuleId.NOT_REGISTERED, parameterName, !found);
+            return found ? Validation.invalid(Violation.of(RuleId.NOT_REGISTERED, parameterName, key)) : Validation.valid(key);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ A rule across the rows of a batch, like "no two rows share an SSN", that no row can be checked
+ against on its own. It sees the rows in input order, each after it has passed its own rules, and
+ remembers what it needs of the ones it's told to accept(). So unlike the per-row rules it's stateful
+ and not thread-safe: an instance checks one batch, and close() lets go of what that took.
+
+ Checking and remembering are apart so that only rows that pass every rule are remembered: a row
+ that fails its own rules, or any batch rule, can't clash with a later one. check() does both, for
+ one rule on its own.
+ */
+public interface BatchRule<T> extends AutoCloseable {
+
+    // the violations of value, in zero-based row number row, given every row accepted before it
+    Seq<Violation> violations(T value, long row);
+
+    // remembers value, which passed this rule and every other, as row row
+    void accept(T value, long row);
+
+    // the violations of value, accepting it if there are none
+    default Seq<Violation> check(final T value, final long row) {
+        final Seq<Violation> violations = violations(value, row);
+        if (violations.isEmpty()) {
+            accept(value, row);
+        }
+        return violations;
+    }
+
+    /*
+     result with this rule's violations, if any, in the same error channel as the row's own.
+     */
+    default Validation<Seq<Violation>, T> validate(final Validation<Seq<Violation>, T> result, final long row) {
+        if (result.isInvalid()) {
+            return result;
+        }
+        final Seq<Violation> violations = check(result.get(), row);
+        return violations.isEmpty() ? result : Validation.invalid(violations);
+    }
+
+    @Override
+    default void close() {}
+
+    // all of rules' violations, in the order given; a row is accepted by all of them or none
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <T> BatchRule<T> all(final BatchRule<? super T>... rules) {
+        final BatchRule<? super T>[] all = rules.clone();
+        return new BatchRule<T>() {
+            @Override
+            public Seq<Violation> violations(final T value, final long row) {
+                Seq<Violation> violations = List.empty();
+                for (final BatchRule<? super T> rule : all) {
+                    violations = violations.appendAll(rule.violations(value, row));
+                }
+                return violations;
+            }
+
+            @Override
+            public void accept(final T value, final long row) {
+                for (final BatchRule<? super T> rule : all) {
+                    rule.accept(value, row);
+                }
+            }
+
+            @Override
+            public void close() {
+                for (final BatchRule<? super T> rule : all) {
+                    rule.close();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,94 @@
+import java.nio.file.Path;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+
+/*
+ BatchRules over persons: no two rows may share an SSN, or an ID. A duplicate is reported with the
+ row its value first appeared in:
+
+     try (final BatchRule<Person> unique = BatchRule.all(BatchRules.uniqueSSN(), BatchRules.uniqueID())) {
+         BulkValidator.onCommonPool().validatePersons(rows, unique, valid, invalid);
+     }
+
+ The values seen are kept as longs in a FirstRowIndex, never as Strings or value objects. An SSN's
+ nine digits pack into the long exactly. An ID is keyed by a 64-bit hash of its characters, so two
+ different IDs could collide and be reported as duplicates: with n IDs in a batch the chance of any
+ collision is about n^2 / 2^65, around one in 370,000 for ten million.
+
+ Given a spillDirectory, the index is memory-mapped from a temporary file there once it would take
+ more than maximumHeapBytes of heap.
+ */
+public final class BatchRules {
+
+    private BatchRules() {}
+
+    public static BatchRule<Person> uniqueSSN() {
+        return new Unique<>("ssn", Person::ssn, ssn -> ssn.packed(), new FirstRowIndex());
+    }
+
+    public static BatchRule<Person> uniqueSSN(final long maximumHeapBytes, final Path spillDirectory) {
+        return new Unique<>("ssn", Person::ssn, ssn -> ssn.packed(), new FirstRowIndex(maximumHeapBytes, spillDirectory));
+    }
+
+    public static BatchRule<Person> uniqueID() {
+        return new Unique<>("id", Person::id, id -> hash(id.id()), new FirstRowIndex());
+    }
+
+    public static BatchRule<Person> uniqueID(final long maximumHeapBytes, final Path spillDirectory) {
+        return new Unique<>("id", Person::id, id -> hash(id.id()), new FirstRowIndex(maximumHeapBytes, spillDirectory));
+    }
+
+    // 64-bit FNV-1a; FirstRowIndex mixes it further before probing
+    static long hash(final String content) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < content.length(); i++) {
+            h = (h ^ content.charAt(i)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static final class Unique<T, V> implements BatchRule<T> {
+        private final String parameterName;
+        private final Function<? super T, Option<V>> value;
+        private final ToLongFunction<? super V> key;
+        private final FirstRowIndex index;
+
+        Unique(final String parameterName, final Function<? super T, Option<V>> value,
+               final ToLongFunction<? super V> key, final FirstRowIndex index) {
+            this.parameterName = parameterName;
+            this.value = value;
+            this.key = key;
+            this.index = index;
+        }
+
+        @Override
+        public Seq<Violation> violations(final T row, final long at) {
+            final Option<V> v = value.apply(row);
+            if (v.isEmpty()) {
+                return List.empty();
+            }
+            final long first = index.get(key.applyAsLong(v.get()));
+            Metrics.record(RuleId.UNIQUE, parameterName, FirstRowIndex.ABSENT == first);
+            return FirstRowIndex.ABSENT == first ?
+                   List.empty() :
+                   List.of(Violation.of(RuleId.UNIQUE, parameterName, v.get(), first));
+        }
+
+        @Override
+        public void accept(final T row, final long at) {
+            final Option<V> v = value.apply(row);
+            if (v.isDefined()) {
+                index.putIfAbsent(key.applyAsLong(v.get()), at);
+            }
+        }
+
+        @Override
+        public void close() {
+            index.close();
+        }
+    }
+}
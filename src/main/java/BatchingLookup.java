@@ -0,0 +1,104 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ Coalesces single-key lookups from concurrent validations into batched calls to a Lookup.
+
+ No timers: a key asked about while fewer than maxInFlight batches are outstanding goes out
+ straight away. Otherwise it waits in a queue, and when a batch completes, everything queued
+ meanwhile (up to maxBatchSize keys) goes out as the next batch. So an idle lookup adds no
+ latency, and a busy one gets batches as large as the load makes them.
+
+ Lock-free: the queue is a ConcurrentLinkedQueue and batches in flight are an AtomicInteger.
+ */
+public final class BatchingLookup<K> {
+    private final Lookup<K> lookup;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+
+    private final ConcurrentLinkedQueue<Pending<K>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public BatchingLookup(final Lookup<K> lookup, final int maxBatchSize, final int maxInFlight) {
+        if (maxBatchSize < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException(
+                    String.format("maxBatchSize (%d) and maxInFlight (%d) must be positive.", maxBatchSize, maxInFlight));
+        }
+        this.lookup = Objects.requireNonNull(lookup, "lookup");
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public BatchingLookup(final Lookup<K> lookup) {
+        this(lookup, 1000, 1);
+    }
+
+    /*
+     Whether key exists. Completes exceptionally if the batch's lookup did.
+     */
+    public CompletableFuture<Boolean> exists(final K key) {
+        final Pending<K> pending = new Pending<>(Objects.requireNonNull(key, "key"));
+        queue.add(pending);
+        drain();
+        return pending.result;
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            final int current = inFlight.get();
+            if (current >= maxInFlight) {
+                return; // a completing batch will drain the queue
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            final ArrayList<Pending<K>> batch = new ArrayList<>();
+            final Set<K> keys = new HashSet<>();
+            Pending<K> pending;
+            while (keys.size() < maxBatchSize && null != (pending = queue.poll())) {
+                batch.add(pending);
+                keys.add(pending.key);
+            }
+            if (batch.isEmpty()) {
+                inFlight.decrementAndGet(); // somebody else took them
+                continue;
+            }
+            dispatch(keys, batch);
+        }
+    }
+
+    private void dispatch(final Set<K> keys, final ArrayList<Pending<K>> batch) {
+        CompletableFuture<Set<K>> existing;
+        try {
+            existing = lookup.existing(keys);
+        } catch (final RuntimeException e) {
+            existing = new CompletableFuture<>();
+            existing.completeExceptionally(e);
+        }
+        existing.whenComplete((found, failure) -> {
+            inFlight.decrementAndGet();
+            for (final Pending<K> waiting : batch) {
+                if (null != failure) {
+                    waiting.result.completeExceptionally(failure);
+                } else {
+                    waiting.result.complete(found.contains(waiting.key));
+                }
+            }
+            drain();
+        });
+    }
+
+    private static final class Pending<K> {
+        final K key;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Pending(final K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+/*
+ A compact binary format for SSN, ID and Person, read and written in place in a ByteBuffer (heap or
+ direct) starting at its position. Every write() is one self-contained record:
+
+     version   1 byte
+     type      1 byte (SSN, ID or PERSON)
+     length    varint, bytes of payload
+     payload   SSN: the packed digits, 4 bytes
+               ID: a string
+               Person: flags (bit 0 has id, bit 1 has ssn), [packed ssn], [id], firstName, lastName, age (zigzag varint)
+     checksum  CRC32 of everything before it, 4 bytes
+
+ Strings are a varint byte count followed by UTF-8. Multi-byte integers are big-endian whatever the
+ buffer's order().
+
+ Reading checks the version, type and checksum first, and throws IllegalArgumentException (leaving the
+ buffer's position alone) if any is off. Then:
+
+ TRUSTED rebuilds the instances without running check() at all. Only for records this codebase wrote
+ from valid instances, under the same rules: bump VERSION whenever a rule gets stricter, so records
+ validated under the old rules are refused rather than trusted.
+
+ UNTRUSTED validates everything, with the same violations as constructing from the same values.
+ */
+public final class BinaryCodec {
+    public enum Trust { TRUSTED, UNTRUSTED }
+
+    static final byte VERSION = 1;
+
+    private static final byte SSN_TYPE = 1, ID_TYPE = 2, PERSON_TYPE = 3;
+    private static final String[] TYPE_NAMES = {null, "SSN", "ID", "Person"};
+    private static final int HAS_ID = 1, HAS_SSN = 2;
+    private static final int HEADER = 2, CHECKSUM = 4;
+
+    private BinaryCodec() {}
+
+    public static void write(final SSN ssn, final ByteBuffer out) {
+        final int start = begin(out, SSN_TYPE, 4);
+        putInt(out, ssn.packed());
+        end(out, start);
+    }
+
+    public static void write(final ID id, final ByteBuffer out) {
+        final String content = id.id();
+        final int length = utf8Length(content);
+        final int start = begin(out, ID_TYPE, varintLength(length) + length);
+        putString(out, content, length);
+        end(out, start);
+    }
+
+    public static void write(final Person person, final ByteBuffer out) {
+        final Option<ID> id = person.id();
+        final Option<SSN> ssn = person.ssn();
+        final String idContent = id.isDefined() ? id.get().id() : null;
+        final int idLength = null == idContent ? 0 : utf8Length(idContent);
+        final String firstName = person.firstName(), lastName = person.lastName();
+        final int firstLength = utf8Length(firstName), lastLength = utf8Length(lastName);
+        final int age = zigzag(person.age());
+        final int payload = 1
+                            + (ssn.isDefined() ? 4 : 0)
+                            + (null == idContent ? 0 : varintLength(idLength) + idLength)
+                            + varintLength(firstLength) + firstLength
+                            + varintLength(lastLength) + lastLength
+                            + varintLength(age);
+        final int start = begin(out, PERSON_TYPE, payload);
+        out.put((byte) ((null == idContent ? 0 : HAS_ID) | (ssn.isDefined() ? HAS_SSN : 0)));
+        if (ssn.isDefined()) {
+            putInt(out, ssn.get().packed());
+        }
+        if (null != idContent) {
+            putString(out, idContent, idLength);
+        }
+        putString(out, firstName, firstLength);
+        putString(out, lastName, lastLength);
+        putVarint(out, age);
+        end(out, start);
+    }
+
+    public static Validation<Seq<Violation>, SSN> readSSN(final ByteBuffer in, final Trust trust) {
+        final Record record = new Record(in, SSN_TYPE);
+        final int packed = record.getInt();
+        record.close();
+        return ssn(packed, trust);
+    }
+
+    public static Validation<Seq<Violation>, ID> readID(final ByteBuffer in, final Trust trust) {
+        final Record record = new Record(in, ID_TYPE);
+        final String content = record.getString();
+        record.close();
+        return id(content, trust);
+    }
+
+    public static Validation<Seq<Violation>, Person> readPerson(final ByteBuffer in, final Trust trust) {
+        final Record record = new Record(in, PERSON_TYPE);
+        final int flags = record.get();
+        final boolean hasSSN = 0 != (flags & HAS_SSN);
+        final int packed = hasSSN ? record.getInt() : SSNFormat.INVALID;
+        final String idContent = 0 != (flags & HAS_ID) ? record.getString() : null;
+        final String firstName = record.getString();
+        final String lastName = record.getString();
+        final int age = unzigzag(record.getVarint());
+        record.close();
+
+        if (Trust.TRUSTED == trust) {
+            return Validation.valid(Checks.trusted(() -> {
+                final ImmutablePerson.Builder builder =
+                        ImmutablePerson.builder().firstName(firstName).lastName(lastName).age(age);
+                if (hasSSN) {
+                    builder.setValueSsn(PackedSSN.trusted(packed));
+                }
+                if (null != idContent) {
+                    builder.setValueId(ImmutableID.of(idContent));
+                }
+                return builder.build();
+            }));
+        }
+        return RawPerson.of(null, null, firstName, lastName, age).toPerson(
+                hasSSN ? ssn(packed, trust).map(Option::some) : Validation.valid(Option.none()),
+                null != idContent ? id(idContent, trust).map(Option::some) : Validation.valid(Option.none()));
+    }
+
+    private static Validation<Seq<Violation>, SSN> ssn(final int packed, final Trust trust) {
+        return Trust.TRUSTED == trust ?
+               Validation.valid(PackedSSN.trusted(packed)) :
+               Checks.buildViolations(() -> PackedSSN.of(packed));
+    }
+
+    private static Validation<Seq<Violation>, ID> id(final String content, final Trust trust) {
+        return Trust.TRUSTED == trust ?
+               Validation.valid(Checks.trusted(() -> ImmutableID.of(content))) :
+               ID.buildViolations(ImmutableID.builder().id(content));
+    }
+
+    // writes the header, returning where the record starts
+    private static int begin(final ByteBuffer out, final byte type, final int payload) {
+        if (out.remaining() < HEADER + varintLength(payload) + payload + CHECKSUM) {
+            throw new BufferOverflowException();
+        }
+        final int start = out.position();
+        out.put(VERSION);
+        out.put(type);
+        putVarint(out, payload);
+        return start;
+    }
+
+    private static void end(final ByteBuffer out, final int start) {
+        putInt(out, checksum(out, start, out.position()));
+    }
+
+    /*
+     The record at a buffer's position, its header and checksum checked, read field by field.
+     Its position only moves, past the whole record, on close().
+     */
+    private static final class Record {
+        private final ByteBuffer in;
+        private final int start;
+        private int end; // of the payload, once the header gives its length
+        private int at;
+
+        Record(final ByteBuffer in, final byte type) {
+            this.in = in;
+            start = in.position();
+            if (in.limit() - start < HEADER + 1) {
+                throw malformed(start, "is truncated");
+            }
+            final byte version = in.get(start);
+            if (VERSION != version) {
+                throw new IllegalArgumentException(String.format(
+                        "Record at %d has format version %d: expected %d.", start, version, VERSION));
+            }
+            final byte actual = in.get(start + 1);
+            if (type != actual) {
+                throw new IllegalArgumentException(String.format(
+                        "Record at %d holds %s: expected %s.", start, typeName(actual), typeName(type)));
+            }
+            at = start + HEADER;
+            end = in.limit() - CHECKSUM; // until the length is known
+            final int length = getVarint();
+            if (length < 0 || end - at < length) {
+                throw malformed(start, "is truncated");
+            }
+            end = at + length;
+            final int expected = BinaryCodec.getInt(in, end);
+            final int checksum = checksum(in, start, end);
+            if (expected != checksum) {
+                throw new IllegalArgumentException(String.format(
+                        "Record at %d has checksum %08x: expected %08x.", start, checksum, expected));
+            }
+        }
+
+        byte get() {
+            require(1);
+            return in.get(at++);
+        }
+
+        int getInt() {
+            require(4);
+            final int value = BinaryCodec.getInt(in, at);
+            at += 4;
+            return value;
+        }
+
+        int getVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                final byte b = get();
+                value |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw malformed(start, "has a malformed varint");
+        }
+
+        String getString() {
+            final int length = getVarint();
+            if (length < 0) {
+                throw malformed(start, "has a negative string length");
+            }
+            require(length);
+            final int from = at;
+            at += length;
+            if (in.hasArray()) {
+                return new String(in.array(), in.arrayOffset() + from, length, StandardCharsets.UTF_8);
+            }
+            final byte[] bytes = new byte[length]; // a String needs its own copy anyway
+            for (int i = 0; i < length; i++) {
+                bytes[i] = in.get(from + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // moves the buffer past the record, once the payload has been read to exactly its end
+        void close() {
+            if (at != end) {
+                throw malformed(start, "has a payload that doesn't match its length");
+            }
+            in.position(end + CHECKSUM);
+        }
+
+        private void require(final int bytes) {
+            if (end - at < bytes) {
+                throw malformed(start, "is truncated");
+            }
+        }
+    }
+
+    private static IllegalArgumentException malformed(final int start, final String problem) {
+        return new IllegalArgumentException(String.format("Record at %d %s.", start, problem));
+    }
+
+    private static String typeName(final byte type) {
+        return type > 0 && type < TYPE_NAMES.length ? "a " + TYPE_NAMES[type] : String.format("unknown type %d", type);
+    }
+
+    private static int checksum(final ByteBuffer buffer, final int from, final int to) {
+        final ByteBuffer record = buffer.duplicate();
+        record.limit(to);
+        record.position(from);
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private static void putInt(final ByteBuffer out, final int value) {
+        out.put((byte) (value >>> 24));
+        out.put((byte) (value >>> 16));
+        out.put((byte) (value >>> 8));
+        out.put((byte) value);
+    }
+
+    private static int getInt(final ByteBuffer in, final int at) {
+        return (in.get(at) & 0xff) << 24 | (in.get(at + 1) & 0xff) << 16 | (in.get(at + 2) & 0xff) << 8 | in.get(at + 3) & 0xff;
+    }
+
+    private static int zigzag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintLength(final int value) {
+        int length = 1;
+        for (int rest = value >>> 7; 0 != rest; rest >>>= 7) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void putVarint(final ByteBuffer out, final int value) {
+        int rest = value;
+        while (0 != (rest & ~0x7f)) {
+            out.put((byte) (rest & 0x7f | 0x80));
+            rest >>>= 7;
+        }
+        out.put((byte) rest);
+    }
+
+    // like String.getBytes(UTF_8).length, unpaired surrogates included (they become '?')
+    private static int utf8Length(final String content) {
+        final int chars = content.length();
+        int length = chars;
+        for (int i = 0; i < chars; i++) {
+            final char c = content.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    length += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(content.charAt(i + 1))) {
+                    length += 2; // 4 bytes for the pair
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    length += 2;
+                }
+            }
+        }
+        return length;
+    }
+
+    // encodes straight into out, with no byte[] in between
+    private static void putString(final ByteBuffer out, final String content, final int length) {
+        putVarint(out, length);
+        final int chars = content.length();
+        for (int i = 0; i < chars; i++) {
+            final char c = content.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xc0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(content.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, content.charAt(++i));
+                out.put((byte) (0xf0 | codePoint >> 18));
+                out.put((byte) (0x80 | codePoint >> 12 & 0x3f));
+                out.put((byte) (0x80 | codePoint >> 6 & 0x3f));
+                out.put((byte) (0x80 | codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xe0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3f));
+                out.put((byte) (0x80 | c & 0x3f));
+            }
+        }
+    }
+}
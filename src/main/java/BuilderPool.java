@@ -0,0 +1,60 @@
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+ One reusable builder per thread, for construction paths that would otherwise allocate a builder
+ per call and drop it right after build().
+
+     final ImmutableID.Builder builder = pool.borrow();
+     try {
+         return ID.buildViolations(builder.id(id));
+     } finally {
+         pool.release(builder);
+     }
+
+ No state from one build may ever reach the next, so release() resets the builder (e.g. with the
+ clear() that @Value.Style(clearBuilder = true) generates), and the reset must drop every reference
+ it holds. Where a builder can't be cleared (vavr-encoded attributes break the generated clear()),
+ keep the pool private to one method that sets every attribute before each build.
+
+ A borrow() while the thread's builder is already out (reentrant use) gets a fresh builder, which
+ release() then just lets go of.
+ */
+final class BuilderPool<B> {
+
+    private static final class Slot<B> {
+        final B builder;
+        boolean borrowed;
+
+        Slot(final B builder) {
+            this.builder = builder;
+        }
+    }
+
+    private final Supplier<? extends B> factory;
+    private final Consumer<? super B> reset;
+    private final ThreadLocal<Slot<B>> slots;
+
+    BuilderPool(final Supplier<? extends B> factory, final Consumer<? super B> reset) {
+        this.factory = factory;
+        this.reset = reset;
+        this.slots = ThreadLocal.withInitial(() -> new Slot<>(factory.get()));
+    }
+
+    B borrow() {
+        final Slot<B> slot = slots.get();
+        if (slot.borrowed) {
+            return factory.get();
+        }
+        slot.borrowed = true;
+        return slot.builder;
+    }
+
+    void release(final B builder) {
+        final Slot<B> slot = slots.get();
+        if (slot.builder == builder) {
+            reset.accept(builder);
+            slot.borrowed = false;
+        }
+    }
+}
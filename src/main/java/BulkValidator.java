@@ -0,0 +1,244 @@
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ Validates large batches of rows in parallel, handing results back in input order.
+
+ Rows are read from the source on the caller's thread, in batches of batchSize, and each batch is
+ validated as one task on the executor. At most batchesInFlight batches are read ahead of the
+ consumer. The source is only pulled as results are consumed, so a slow consumer holds back the
+ reader and memory stays bounded however large the input is.
+
+ The row validation function must be side-effect free (and so thread-safe), like the rest of the
+ validation code. It runs under the RuleSet in force where validate() was called, whichever executor
+ thread it lands on.
+ */
+public final class BulkValidator {
+    private final Executor executor;
+    private final int batchSize;
+    private final int batchesInFlight;
+
+    public BulkValidator(final Executor executor, final int batchSize, final int batchesInFlight) {
+        if (batchSize < 1 || batchesInFlight < 1) {
+            throw new IllegalArgumentException(
+                    String.format("batchSize (%d) and batchesInFlight (%d) must be positive.", batchSize, batchesInFlight));
+        }
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.batchSize = batchSize;
+        this.batchesInFlight = batchesInFlight;
+    }
+
+    /*
+     Batches of 1024 rows on the common fork-join pool, with enough read-ahead to keep every
+     worker busy while the consumer drains the oldest batch.
+     */
+    public static BulkValidator onCommonPool() {
+        return on(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    public static BulkValidator on(final Executor executor, final int parallelism) {
+        return new BulkValidator(executor, 1024, 2 * Math.max(1, parallelism) + 1);
+    }
+
+    /*
+     Validation results in input order. Rows are validated ahead of the iterator: the batch being
+     drained plus batchesInFlight more, so at most batchSize * (batchesInFlight + 1) rows.
+     */
+    public <I, E, T> Iterator<Validation<E, T>> validate(
+            final Iterator<? extends I> rows,
+            final Function<? super I, ? extends Validation<E, T>> validation) {
+        return new Ordered<>(rows, validation);
+    }
+
+    public <I, E, T> Stream<Validation<E, T>> validate(
+            final Stream<? extends I> rows,
+            final Function<? super I, ? extends Validation<E, T>> validation) {
+        final Iterator<Validation<E, T>> results = validate(rows.iterator(), validation);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                            .onClose(rows::close);
+    }
+
+    /*
+     Sends valid results to valid and invalid ones, with their zero-based row number, to invalid.
+     Both sinks are called in input order on the calling thread. Returns the number of rows.
+     */
+    public <I, E, T> long validate(
+            final Iterable<? extends I> rows,
+            final Function<? super I, ? extends Validation<E, T>> validation,
+            final Consumer<? super T> valid,
+            final ObjLongConsumer<? super E> invalid) {
+        final Iterator<Validation<E, T>> results = validate(rows.iterator(), validation);
+        long row = 0;
+        while (results.hasNext()) {
+            final Validation<E, T> result = results.next();
+            if (result.isValid()) {
+                valid.accept(result.get());
+            } else {
+                invalid.accept(result.getError(), row);
+            }
+            row++;
+        }
+        return row;
+    }
+
+    /*
+     The same, with batchRule checking each row that passes validation against the ones before it
+     that passed both. Its violations go to invalid along with the rows' own. batchRule sees the
+     rows in input order on the calling thread; closing it is up to the caller.
+     */
+    public <I, T> long validate(
+            final Iterable<? extends I> rows,
+            final Function<? super I, ? extends Validation<Seq<Violation>, T>> validation,
+            final BatchRule<? super T> batchRule,
+            final Consumer<? super T> valid,
+            final ObjLongConsumer<? super Seq<Violation>> invalid) {
+        final Iterator<Validation<Seq<Violation>, T>> results = validate(rows.iterator(), validation);
+        long row = 0;
+        while (results.hasNext()) {
+            final Validation<Seq<Violation>, T> result = results.next();
+            final Seq<Violation> violations = result.isValid() ? batchRule.check(result.get(), row) : result.getError();
+            if (violations.isEmpty()) {
+                valid.accept(result.get());
+            } else {
+                invalid.accept(violations, row);
+            }
+            row++;
+        }
+        return row;
+    }
+
+    /*
+     The same, recording every row into report instead of handing results back. Rejected rows keep
+     their input alongside their violations only until report has seen them.
+     */
+    public <I, T> long validate(
+            final Iterable<? extends I> rows,
+            final Function<? super I, ? extends Validation<Seq<Violation>, T>> validation,
+            final RejectionReport<? super I> report) {
+        return validate(rows,
+                        (final I row) -> validation.apply(row).<Tuple2<I, Seq<Violation>>>mapError(violations -> Tuple.of(row, violations)),
+                        valid -> report.accepted(),
+                        (rejected, row) -> report.rejected(rejected._1, row, rejected._2));
+    }
+
+    public Stream<Validation<Seq<Violation>, Person>> validatePersons(final Stream<RawPerson> rows) {
+        return validate(rows, RawPerson::toPerson);
+    }
+
+    public long validatePersons(
+            final Iterable<RawPerson> rows,
+            final Consumer<? super Person> valid,
+            final ObjLongConsumer<? super Seq<Violation>> invalid) {
+        return validate(rows, RawPerson::toPerson, valid, invalid);
+    }
+
+    public long validatePersons(
+            final Iterable<RawPerson> rows,
+            final BatchRule<? super Person> batchRule,
+            final Consumer<? super Person> valid,
+            final ObjLongConsumer<? super Seq<Violation>> invalid) {
+        return validate(rows, RawPerson::toPerson, batchRule, valid, invalid);
+    }
+
+    public long validatePersons(final Iterable<RawPerson> rows, final RejectionReport<? super RawPerson> report) {
+        return validate(rows, RawPerson::toPerson, report);
+    }
+
+    private final class Ordered<I, E, T> implements Iterator<Validation<E, T>> {
+        private final Iterator<? extends I> source;
+        private final Function<? super I, ? extends Validation<E, T>> validation;
+        private final RuleSet rules = Checks.rules();
+        private final ArrayDeque<CompletableFuture<Validation<E, T>[]>> inFlight = new ArrayDeque<>();
+
+        private Validation<E, T>[] current;
+        private int position;
+
+        Ordered(final Iterator<? extends I> source, final Function<? super I, ? extends Validation<E, T>> validation) {
+            this.source = source;
+            this.validation = validation;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != current && position < current.length) {
+                return true;
+            }
+            readAhead();
+            final CompletableFuture<Validation<E, T>[]> oldest = inFlight.poll();
+            if (null == oldest) {
+                current = null;
+                return false;
+            }
+            // top up before blocking, so the workers stay busy while we drain this batch
+            readAhead();
+            current = join(oldest);
+            position = 0;
+            return true; // batches are never empty
+        }
+
+        @Override
+        public Validation<E, T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Validation<E, T> result = current[position];
+            current[position++] = null; // let consumed results go
+            return result;
+        }
+
+        private void readAhead() {
+            while (inFlight.size() < batchesInFlight && source.hasNext()) {
+                final Object[] batch = new Object[batchSize];
+                int size = 0;
+                while (size < batchSize && source.hasNext()) {
+                    batch[size++] = source.next();
+                }
+                final int rows = size;
+                inFlight.add(CompletableFuture.supplyAsync(() -> Checks.under(rules, () -> validateBatch(batch, rows)), executor));
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Validation<E, T>[] validateBatch(final Object[] batch, final int rows) {
+            final Validation<E, T>[] results = new Validation[rows];
+            for (int i = 0; i < rows; i++) {
+                results[i] = validation.apply((I) batch[i]);
+            }
+            return results;
+        }
+
+        private Validation<E, T>[] join(final CompletableFuture<Validation<E, T>[]> batch) {
+            try {
+                return batch.join();
+            } catch (final CompletionException e) {
+                // surface what the row validation actually threw
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ Glue between a (normalizing) @Value.Check method and buildValidation().
+
+ Immutables.io always routes construction through check(), and the only way check() can refuse an
+ instance is to throw. That's fine for ImmutableFoo.of() and copyOf(), but buildValidation() used to
+ pay for a whole IllegalStateException (stack trace and all) just to unpack its message again.
+
+ This is a stand-in for the @Value.Validate proposal in https://github.com/immutables/immutables/issues/451
+ buildValidation() arms a per-thread capture before calling build(). When check() finds violations and
+ the capture is armed, it parks them there and lets build() return the unpublished instance, which
+ buildValidation() then throws away. No exception is ever allocated on the validation path.
+
+ The capture also carries the ValidationPolicy asked of buildViolations(), so check() methods backed
+ by a Validator can honor it, whether construction is trusted() to be valid already, and the
+ RuleSet in force.
+ */
+final class Checks {
+
+    private static final class Capture {
+        boolean armed;
+        boolean trusted;
+        ValidationPolicy policy = ValidationPolicy.ACCUMULATE;
+        RuleSet rules = RuleSet.DEFAULTS;
+        Seq<Violation> violations;
+    }
+
+    private static final ThreadLocal<Capture> captures = ThreadLocal.withInitial(Capture::new);
+
+    private Checks() {}
+
+    /*
+     Call this from a @Value.Check method, passing the instance being checked and its validation.
+     The valid path never touches the thread-local.
+
+     Caveat: a check() method must not construct other immutables before calling this, or an invalid
+     inner object would be reported as the outer object's violations.
+     */
+    static <T> T check(final T self, final Validation<? extends Seq<Violation>,?> validation) {
+        if (validation.isValid()) {
+            return self;
+        }
+        final Capture capture = captures.get();
+        if (capture.trusted) {
+            return self;
+        }
+        if (capture.armed) {
+            capture.armed = false;
+            capture.violations = validation.getError();
+            return self;
+        }
+        // the message is only rendered here, when somebody is going to see it
+        throw new IllegalStateException(Validations.combineViolations(validation.getError()));
+    }
+
+    /*
+     For check() methods backed by a Validator: runs it under the policy asked of buildViolations(),
+     or ACCUMULATE outside of it. A valid instance costs no allocation at all.
+
+     self is a freshly constructed immutable, so only the rules whose dependencies changed since the
+     last valid instance need to run (see Validator.dependsOn()).
+     */
+    static <T> T check(final T self, final Validator<T> validator) {
+        final Capture capture = captures.get();
+        return capture.trusted ? self : check(self, validator, capture);
+    }
+
+    /*
+     The same, with the Validator of the RuleSet in force (see under()), e.g. RuleSet::person.
+     */
+    static <T> T check(final T self, final Function<? super RuleSet, ? extends Validator<T>> validator) {
+        final Capture capture = captures.get();
+        return capture.trusted ? self : check(self, validator.apply(capture.rules), capture);
+    }
+
+    private static <T> T check(final T self, final Validator<T> validator, final Capture capture) {
+        final Seq<Violation> violations =
+                validator.incrementalViolations(self, capture.armed ? capture.policy : ValidationPolicy.ACCUMULATE);
+        if (null == violations) {
+            return self;
+        }
+        if (capture.armed) {
+            capture.armed = false;
+            capture.violations = violations;
+            return self;
+        }
+        throw new IllegalStateException(Validations.combineViolations(violations));
+    }
+
+    /*
+     Runs build with every check() waved through, for data that was validated before and is known
+     not to have changed since, e.g. a checksummed record BinaryCodec wrote. Nested construction
+     (an ID inside a Person) is trusted too.
+     */
+    static <T> T trusted(final Supplier<? extends T> build) {
+        final Capture capture = captures.get();
+        final boolean trusted = capture.trusted;
+        capture.trusted = true;
+        try {
+            return build.get();
+        } finally {
+            capture.trusted = trusted;
+        }
+    }
+
+    // true inside trusted(), for check() methods that would do work before calling check()
+    static boolean isTrusted() {
+        return captures.get().trusted;
+    }
+
+    /*
+     Runs validation with rules in force for every check() backed by a RuleSet, nested construction
+     included. Outside of it, RuleSet.DEFAULTS is.
+     */
+    static <T> T under(final RuleSet rules, final Supplier<? extends T> validation) {
+        final Capture capture = captures.get();
+        final RuleSet outer = capture.rules;
+        capture.rules = rules;
+        try {
+            return validation.get();
+        } finally {
+            capture.rules = outer;
+        }
+    }
+
+    // the RuleSet in force on this thread
+    static RuleSet rules() {
+        return captures.get().rules;
+    }
+
+    /*
+     Runs build (typically builder::build) and hands back check()'s verdict as a Validation.
+     */
+    static <T> Validation<String,T> buildValidation(final Supplier<? extends T> build) {
+        return Checks.<T>buildViolations(build).mapError(Validations::combineViolations);
+    }
+
+    /*
+     Like buildValidation() but leaves the violations unrendered.
+     */
+    static <T> Validation<Seq<Violation>,T> buildViolations(final Supplier<? extends T> build) {
+        return buildViolations(build, ValidationPolicy.ACCUMULATE);
+    }
+
+    static <T> Validation<Seq<Violation>,T> buildViolations(final Supplier<? extends T> build,
+                                                           final ValidationPolicy policy) {
+        final Capture capture = captures.get();
+        capture.armed = true;
+        capture.policy = policy;
+        capture.violations = null;
+        try {
+            final T built = build.get();
+            return null == capture.violations ? Validation.valid(built) : Validation.invalid(capture.violations);
+        } catch (final IllegalStateException e) {
+            /*
+             The generated builder still throws when required attributes are missing. That's a
+             programming error rather than bad input, so it's not worth avoiding.
+             */
+            return Validation.invalid(List.of(Violation.of(RuleId.REQUIRED_ATTRIBUTES, null, e.getMessage())));
+        } finally {
+            capture.armed = false;
+            capture.policy = ValidationPolicy.ACCUMULATE;
+            capture.violations = null;
+        }
+    }
+}
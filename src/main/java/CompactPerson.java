@@ -0,0 +1,78 @@
+import io.vavr.control.Option;
+
+/*
+ A Person laid out flat, for when millions of them are held at once. An ImmutablePerson holds an
+ Option around an ImmutableID around its String, an Option around an ImmutableSSN around a String and
+ its array, and a slot for the memoized name(). Here the SSN is its nine digits packed into an int
+ (as in PackedSSN), the ID is just its String, and an absent one is null (or NO_SSN) rather than an
+ Option. See Footprint in the benchmarks for what that saves.
+
+ The accessors are Person's, so the price is paid on access instead: ssn() and id() wrap the flat
+ value again each time they're called, and name() is concatenated each time rather than memoized.
+ Equality, hashing and toString() are Person's, so a CompactPerson equals the ImmutablePerson it was
+ copied from.
+
+ Hand-written rather than generated: immutables.io won't let a value type extend another one.
+ */
+final class CompactPerson extends Person {
+    private static final int NO_SSN = -1;
+
+    private final String id;
+    private final String firstName;
+    private final String lastName;
+    private final int age;
+    private final int ssn;
+
+    /*
+     private most-general constructor
+     It performs no validation!
+     */
+    private CompactPerson(final String id, final String firstName, final String lastName, final int age, final int ssn) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.age = age;
+        this.ssn = ssn;
+    }
+
+    /*
+     No revalidation: person passed Person's rules when it was constructed, and the values don't change.
+     */
+    static Person copyOf(final Person person) {
+        if (person instanceof CompactPerson) {
+            return person;
+        }
+        return new CompactPerson(person.id().map(ID::id).getOrNull(), person.firstName(), person.lastName(), person.age(),
+                                 person.ssn().map(SSN::packed).getOrElse(NO_SSN));
+    }
+
+    @Override
+    public Option<ID> id() {
+        return null == id ? Option.none() : Option.some(Checks.trusted(() -> ImmutableID.of(id)));
+    }
+
+    @Override
+    public String firstName() {
+        return firstName;
+    }
+
+    @Override
+    public String lastName() {
+        return lastName;
+    }
+
+    @Override
+    public int age() {
+        return age;
+    }
+
+    @Override
+    public Option<SSN> ssn() {
+        return NO_SSN == ssn ? Option.none() : Option.some(PackedSSN.trusted(ssn));
+    }
+
+    @Override
+    public Person compact() {
+        return this;
+    }
+}
@@ -0,0 +1,11 @@
+import org.immutables.value.Value;
+
+// base wrapper type for double values, so they're neither boxed nor validated through Validation<String,Double>
+abstract class DoubleWrapper {
+    @Value.Parameter
+    public abstract double value();
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + value() + ")";
+    }
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+
+/*
+ The rules on the elements of an aggregate's collection attribute, like a Household's members: each
+ element's own rules, from the RuleSet in force, and rules across elements, like "no two members share
+ an SSN".
+
+ validate() checks a whole collection. Its Verdict then carries over to the next version of that
+ collection: update() is told which keys (or indexes) changed, and rechecks only the elements there.
+ The others are never looked at, since their own rules depend on nothing but their values, and what the
+ rules across elements need to know of them (which element holds each unique value) is kept in
+ persistent HashMaps that share structure from version to version, as vavr's collections themselves
+ do. So replacing one member of a household of thousands costs a few O(log n) map updates, plus that
+ member's own rules.
+
+ Violations are located at attribute[key], e.g. members[7]: the element's key in a Map or its index in
+ a Seq. A cross-element violation goes to the element that came second, and names where the first is.
+ */
+public final class ElementValidator<E> {
+    private final Function<? super RuleSet, ? extends Validator<E>> validator;
+    private final Seq<Unique<E>> uniques;
+
+    private ElementValidator(final Function<? super RuleSet, ? extends Validator<E>> validator, final Seq<Unique<E>> uniques) {
+        this.validator = validator;
+        this.uniques = uniques;
+    }
+
+    /*
+     Elements checked by the Validator of the RuleSet in force, e.g. RuleSet::person.
+     */
+    public static <E> ElementValidator<E> of(final Function<? super RuleSet, ? extends Validator<E>> validator) {
+        return new ElementValidator<>(Objects.requireNonNull(validator, "validator"), List.empty());
+    }
+
+    /*
+     These rules, and no two elements having the same value, where they have one at all. Values are
+     compared with equals().
+     */
+    public ElementValidator<E> unique(final String parameterName, final Function<? super E, ? extends Option<?>> value) {
+        return new ElementValidator<>(validator, uniques.append(new Unique<>(parameterName, value)));
+    }
+
+    public <K> Verdict<K, E> validate(final String attribute, final Map<K, ? extends E> elements) {
+        return this.<K>empty(attribute).step(elements, elements.keySet(), key -> null, key -> elements.get(key).getOrNull());
+    }
+
+    public Verdict<Integer, E> validate(final String attribute, final Seq<? extends E> elements) {
+        // walked in order rather than with get(), which is O(index) on a List
+        final Iterator<? extends E> walk = elements.iterator();
+        return this.<Integer>empty(attribute).step(elements, Iterator.range(0, elements.size()), index -> null, index -> walk.next());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <K> Verdict<K, E> empty(final String attribute) {
+        final HashMap<Object, K>[] holders = new HashMap[uniques.size()];
+        Arrays.fill(holders, HashMap.empty());
+        return new Verdict<>(this, attribute, null, Checks.rules(), holders, List.empty());
+    }
+
+    /*
+     What the rules found in one version of a collection: its violations, and what's needed to check
+     the next version against it.
+     */
+    public static final class Verdict<K, E> {
+        private final ElementValidator<E> rules;
+        private final String attribute;
+        private final Object elements; // the collection this is the verdict on
+        private final RuleSet ruleSet;
+        private final HashMap<Object, K>[] holders; // per unique(): value -> key of the element holding it
+        private final Seq<Violation> violations;
+
+        private Verdict(final ElementValidator<E> rules, final String attribute, final Object elements, final RuleSet ruleSet,
+                        final HashMap<Object, K>[] holders, final Seq<Violation> violations) {
+            this.rules = rules;
+            this.attribute = attribute;
+            this.elements = elements;
+            this.ruleSet = ruleSet;
+            this.holders = holders;
+            this.violations = violations;
+        }
+
+        public boolean isValid() {
+            return violations.isEmpty();
+        }
+
+        public Seq<Violation> violations() {
+            return violations;
+        }
+
+        // true if this is the verdict on that very collection, under the RuleSet in force now
+        public boolean isOf(final Object collection) {
+            return elements == collection && ruleSet == Checks.rules();
+        }
+
+        /*
+         The verdict on next, which is previous (the collection this is the verdict on) with the
+         elements at changed put or removed. Only those are checked, unless this verdict isn't valid
+         or another RuleSet is in force now, in which case all of next is.
+         */
+        public Verdict<K, E> update(final Map<K, ? extends E> previous, final Map<K, ? extends E> next,
+                                    final Iterable<? extends K> changed) {
+            if (!current()) {
+                return rules.validate(attribute, next);
+            }
+            return step(next, changed, key -> previous.get(key).getOrNull(), key -> next.get(key).getOrNull());
+        }
+
+        /*
+         The same for a Seq, where changed are indexes. Only the elements at changed may have moved,
+         so this is for setting elements with update() and adding or removing them at the end. An
+         IndexedSeq like Vector finds them in O(log n).
+         */
+        @SuppressWarnings("unchecked")
+        public Verdict<Integer, E> update(final Seq<? extends E> previous, final Seq<? extends E> next,
+                                          final Iterable<Integer> changed) {
+            if (!current()) {
+                return rules.validate(attribute, next);
+            }
+            return ((Verdict<Integer, E>) this).step(next, changed,
+                                                     index -> index < previous.size() ? previous.get(index) : null,
+                                                     index -> index < next.size() ? next.get(index) : null);
+        }
+
+        private boolean current() {
+            return isValid() && ruleSet == Checks.rules();
+        }
+
+        /*
+         Takes the elements that were at changed out of holders, then checks the ones there now and
+         adds them back, so two elements trading a unique value between them is no violation.
+         before and after give the element at a key, or null if there's none.
+         */
+        private Verdict<K, E> step(final Object next, final Iterable<? extends K> changed,
+                                   final Function<? super K, ? extends E> before,
+                                   final Function<? super K, ? extends E> after) {
+            final Seq<Unique<E>> uniques = rules.uniques;
+            final HashMap<Object, K>[] held = holders.clone();
+            final List<? extends K> keys = List.ofAll(changed);
+            for (final K key : keys) {
+                final E removed = before.apply(key);
+                if (null != removed) {
+                    for (int i = 0; i < held.length; i++) {
+                        final Option<?> value = uniques.get(i).value.apply(removed);
+                        if (value.isDefined() && held[i].get(value.get()).contains(key)) {
+                            held[i] = held[i].remove(value.get());
+                        }
+                    }
+                }
+            }
+            final Validator<E> validator = rules.validator.apply(ruleSet);
+            List<Violation> found = List.empty();
+            for (final K key : keys) {
+                final E element = after.apply(key);
+                if (null == element) {
+                    continue;
+                }
+                final String path = path(attribute, key);
+                // the very element that was there passed its own rules then, under the same RuleSet
+                if (element != before.apply(key)) {
+                    final Seq<Violation> own = validator.violations(element, ValidationPolicy.ACCUMULATE);
+                    if (null != own) {
+                        found = found.appendAll(own.map(violation -> violation.at(located(path, violation))));
+                    }
+                }
+                for (int i = 0; i < held.length; i++) {
+                    final Unique<E> unique = uniques.get(i);
+                    final Option<?> value = unique.value.apply(element);
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                    final Option<K> holder = held[i].get(value.get());
+                    if (holder.isEmpty()) {
+                        held[i] = held[i].put(value.get(), key);
+                    } else if (!holder.get().equals(key)) {
+                        found = found.append(Violation.of(RuleId.DUPLICATE, unique.parameterName, value.get(),
+                                                          path(attribute, holder.get())).at(path));
+                    }
+                }
+            }
+            return new Verdict<>(rules, attribute, next, ruleSet, held, found);
+        }
+    }
+
+    private static String path(final String attribute, final Object key) {
+        return attribute + "[" + key + "]";
+    }
+
+    private static String located(final String path, final Violation violation) {
+        return null == violation.path() ? path : path + "." + violation.path();
+    }
+
+    private static final class Unique<E> {
+        final String parameterName;
+        final Function<? super E, ? extends Option<?>> value;
+
+        Unique(final String parameterName, final Function<? super E, ? extends Option<?>> value) {
+            this.parameterName = parameterName;
+            this.value = value;
+        }
+    }
+}
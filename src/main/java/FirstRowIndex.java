@@ -0,0 +1,247 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ The first row each long key was added in, for uniqueness checks across batches of tens of millions
+ of rows.
+
+ Open addressing with linear probing, like PersonTable's SSN index, but over longs: each slot holds a
+ key and its row + 1 side by side (0 is empty), so a probe touches one cache line and nothing is
+ boxed. Kept between a quarter and half full, that's 32 to 64 bytes per key, where a HashSet<String>
+ of SSNs costs over 100.
+
+ The table doubles as it fills. Once a doubling would take it past maximumHeapBytes, and if there is
+ a spillDirectory, it's rebuilt in a temporary file there and memory-mapped instead, so the OS pages
+ it rather than the heap holding it. The file is deleted on close(), or on Unix as soon as it's
+ open, so a crash leaves nothing behind. Without a spillDirectory it grows on the heap, up to 2^28
+ keys.
+
+ Not thread-safe.
+ */
+final class FirstRowIndex implements AutoCloseable {
+    static final long ABSENT = -1;
+
+    private static final int HEAP_MAXIMUM_SLOTS = 1 << 29;
+    private static final int SEGMENT_SHIFT = 26; // 2^26 slots of 16 bytes: 1GB per mapping
+
+    private final long maximumHeapBytes;
+    private final Path spillDirectory;
+
+    private Table table = new HeapTable(16);
+    private long size;
+
+    FirstRowIndex() {
+        this(Long.MAX_VALUE, null);
+    }
+
+    /*
+     spillDirectory may be null, for no spilling.
+     */
+    FirstRowIndex(final long maximumHeapBytes, final Path spillDirectory) {
+        if (maximumHeapBytes < 1) {
+            throw new IllegalArgumentException(String.format("maximumHeapBytes (%d) must be positive.", maximumHeapBytes));
+        }
+        this.maximumHeapBytes = maximumHeapBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /*
+     The row key was first added in, or ABSENT if it never was.
+     */
+    long get(final long key) {
+        final long mask = table.slots - 1;
+        for (long slot = mix(key) & mask, held; 0 != (held = table.row(slot)); slot = (slot + 1) & mask) {
+            if (table.key(slot) == key) {
+                return held - 1;
+            }
+        }
+        return ABSENT;
+    }
+
+    /*
+     The row key was first added in, or ABSENT if this is the first time, in which case it's added with row.
+     */
+    long putIfAbsent(final long key, final long row) {
+        if (row < 0) {
+            throw new IllegalArgumentException(String.format("row (%d) must not be negative.", row));
+        }
+        long mask = table.slots - 1;
+        long slot = mix(key) & mask;
+        for (long held; 0 != (held = table.row(slot)); slot = (slot + 1) & mask) {
+            if (table.key(slot) == key) {
+                return held - 1;
+            }
+        }
+        if (2 * (size + 1) > table.slots) {
+            grow();
+            mask = table.slots - 1;
+            slot = mix(key) & mask;
+            while (0 != table.row(slot)) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        table.put(slot, key, row + 1);
+        size++;
+        return ABSENT;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean spilled() {
+        return table instanceof MappedTable;
+    }
+
+    @Override
+    public void close() {
+        try {
+            table.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void grow() {
+        final long slots = 2 * table.slots;
+        final Table bigger;
+        try {
+            if (null != spillDirectory && 16 * slots > maximumHeapBytes) {
+                bigger = new MappedTable(spillDirectory, slots);
+            } else if (slots <= HEAP_MAXIMUM_SLOTS) {
+                bigger = new HeapTable((int) slots);
+            } else {
+                throw new IllegalStateException(String.format(
+                        "FirstRowIndex is full at %d keys: give it a spillDirectory to hold more.", size));
+            }
+            final long mask = slots - 1;
+            for (long from = 0; from < table.slots; from++) {
+                final long held = table.row(from);
+                if (0 != held) {
+                    final long key = table.key(from);
+                    long slot = mix(key) & mask;
+                    while (0 != bigger.row(slot)) {
+                        slot = (slot + 1) & mask;
+                    }
+                    bigger.put(slot, key, held);
+                }
+            }
+            table.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        table = bigger;
+    }
+
+    // murmur3's 64-bit finalizer: sequential keys (like packed SSNs) must not probe in runs
+    private static long mix(final long key) {
+        long h = key;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private abstract static class Table implements AutoCloseable {
+        final long slots; // a power of 2
+
+        Table(final long slots) {
+            this.slots = slots;
+        }
+
+        abstract long key(long slot);
+
+        // row + 1, or 0 if the slot is empty
+        abstract long row(long slot);
+
+        abstract void put(long slot, long key, long row);
+
+        @Override
+        public void close() throws IOException {}
+    }
+
+    private static final class HeapTable extends Table {
+        private final long[] entries;
+
+        HeapTable(final int slots) {
+            super(slots);
+            entries = new long[2 * slots];
+        }
+
+        @Override
+        long key(final long slot) {
+            return entries[(int) (2 * slot)];
+        }
+
+        @Override
+        long row(final long slot) {
+            return entries[(int) (2 * slot + 1)];
+        }
+
+        @Override
+        void put(final long slot, final long key, final long row) {
+            entries[(int) (2 * slot)] = key;
+            entries[(int) (2 * slot + 1)] = row;
+        }
+    }
+
+    // a new file reads as zeroes, i.e. all slots empty
+    private static final class MappedTable extends Table {
+        private final FileChannel channel;
+        private final ByteBuffer[] segments;
+
+        MappedTable(final Path directory, final long slots) throws IOException {
+            super(slots);
+            channel = FileChannel.open(Files.createTempFile(directory, "first-rows", ".index"),
+                                       StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                       StandardOpenOption.DELETE_ON_CLOSE);
+            final long segmentSlots = Math.min(slots, 1L << SEGMENT_SHIFT);
+            segments = new ByteBuffer[(int) (slots / segmentSlots)];
+            try {
+                for (int i = 0; i < segments.length; i++) {
+                    segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, 16 * segmentSlots * i, 16 * segmentSlots)
+                                         .order(ByteOrder.nativeOrder());
+                }
+            } catch (final IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private ByteBuffer segment(final long slot) {
+            return segments[(int) (slot >>> SEGMENT_SHIFT)];
+        }
+
+        private static int offset(final long slot) {
+            return (int) (slot & ((1L << SEGMENT_SHIFT) - 1)) << 4;
+        }
+
+        @Override
+        long key(final long slot) {
+            return segment(slot).getLong(offset(slot));
+        }
+
+        @Override
+        long row(final long slot) {
+            return segment(slot).getLong(offset(slot) + 8);
+        }
+
+        @Override
+        void put(final long slot, final long key, final long row) {
+            final ByteBuffer segment = segment(slot);
+            segment.putLong(offset(slot), key);
+            segment.putLong(offset(slot) + 8, row);
+        }
+
+        // the mappings themselves are released once they're collected
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
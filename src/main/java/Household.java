@@ -0,0 +1,74 @@
+import org.immutables.value.Value;
+import org.immutables.vavr.encodings.VavrEncodingEnabled;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ An aggregate: persons living together, keyed by their IDs. Every member passes Person's rules of the
+ RuleSet in force, and no two members share an SSN. Violations are located at members[id].
+
+ Constructing a Household checks all of its members (see ElementValidator). A new version made with
+ withMember() or withoutMember() only checks the member that changed, against the rest: the verdict on
+ this household is kept with it, in an auxiliary attribute, and updated rather than redone.
+ */
+@Value.Immutable
+@VavrEncodingEnabled
+public abstract class Household {
+
+    public abstract Map<ID, Person> members();
+
+    static final ElementValidator<Person> MEMBERS = ElementValidator.of(RuleSet::person).unique("ssn", Person::ssn);
+
+    /*
+     The verdict on members(), which withMember() and withoutMember() hand on to the next version. Not
+     part of the value. Left unset, it's a full check of members() under the RuleSet in force; a stale
+     one, as copied along by the generated withMembers() or from() under another RuleSet, is noticed by
+     check() and redone.
+     */
+    @Value.Default
+    @Value.Auxiliary
+    ElementValidator.Verdict<ID, Person> verdict() {
+        return MEMBERS.validate("members", members());
+    }
+
+    @Value.Check
+    protected Household check() {
+        if (Checks.isTrusted()) {
+            return this;
+        }
+        if (!verdict().isOf(members())) {
+            return ImmutableHousehold.builder().members(members()).build();
+        }
+        return verdict().isValid() ? this : Checks.check(this, Validation.invalid(verdict().violations()));
+    }
+
+    /*
+     This household with member put under its ID, replacing any member there. Only member is checked.
+     */
+    public Validation<Seq<Violation>, Household> withMember(final Person member) {
+        final ID id = member.id().getOrElseThrow(() -> new IllegalArgumentException(
+                String.format("%s has no id: only persisted persons can be members.", member)));
+        return next(members().put(id, member), id);
+    }
+
+    public Validation<Seq<Violation>, Household> withoutMember(final ID id) {
+        return next(members().remove(id), id);
+    }
+
+    private Validation<Seq<Violation>, Household> next(final Map<ID, Person> members, final ID changed) {
+        // trusted construction may have left a stale verdict
+        final ElementValidator.Verdict<ID, Person> previous =
+                verdict().isOf(members()) ? verdict() : MEMBERS.validate("members", members());
+        final ElementValidator.Verdict<ID, Person> next = previous.update(members(), members, List.of(changed));
+        return next.isValid() ?
+               Validation.valid(ImmutableHousehold.builder().members(members).verdict(next).build()) :
+               Validation.invalid(next.violations());
+    }
+
+    static Validation<Seq<Violation>, Household> buildViolations(final ImmutableHousehold.Builder builder) {
+        return Checks.buildViolations(builder::build);
+    }
+}
@@ -1,10 +1,10 @@
 import org.immutables.value.Value;
 
-import io.vavr.control.Either;
-import io.vavr.control.Try;
+import io.vavr.collection.Seq;
 import io.vavr.control.Validation;
 
 @Value.Immutable
+@Value.Style(clearBuilder = true)
 abstract class ID {
 
     @Value.Parameter
@@ -16,29 +16,61 @@ abstract class ID {
 
     @Value.Check
     protected ID check() {
-        return validate()
-                // toEither().getOrElseThrow() is required because https://github.com/vavr-io/vavr/issues/2207
-                .toEither()
-                // can't use method reference here: compiler (or at least IntelliJ) finds it ambiguous
-                .getOrElseThrow(errors->new IllegalStateException(errors));
+        return Checks.check(this, VALIDATOR);
     }
 
+    private static final Validator<ID> VALIDATOR = Validator.builder(ID.class)
+            .attribute("ID", ID::id, Validator.Cost.CHEAP, Rules.notBlank())
+            .build();
+
     /*
      In https://github.com/immutables/immutables/issues/451 I propose
-     @Value.Validate to generate a buildValidation() on the generated Builder class
+     @Value.Validate to generate a buildValidation() on the generated Builder class.
+     This method would get generated on the Builder class under my proposal.
+     Until then Checks stands in for it: check() hands its errors back instead of throwing.
      */
-    private Validation<String, ID> validate() {
-        return Validations.notBlank(id(), "ID").map(id->this);
+    static Validation<String,ID> buildValidation(final ImmutableID.Builder builder) {
+        return Checks.buildValidation(builder::build);
+    }
+
+    static Validation<Seq<Violation>,ID> buildViolations(final ImmutableID.Builder builder) {
+        return Checks.buildViolations(builder::build);
     }
 
+    private static final BuilderPool<ImmutableID.Builder> builders =
+            new BuilderPool<>(ImmutableID::builder, ImmutableID.Builder::clear);
+
     /*
-     This method would get generated on the Builder class under my proposal.
-     In that case it wouldn't need to unpack the exception like this because check()
-     would be avoided
+     Same as buildViolations(ImmutableID.builder().id(id)), on this thread's pooled builder.
      */
-    static Validation<String,ID> buildValidation(final ImmutableID.Builder builder) {
-        final Either<? extends Throwable,ID> pe = Try.of(()->(ID)builder.build()).toEither();
-        return pe.isLeft() ? Validation.invalid(pe.getLeft().getMessage()) : Validation.valid(pe.get());
+    static Validation<Seq<Violation>,ID> buildViolations(final String id) {
+        final ImmutableID.Builder builder = builders.borrow();
+        try {
+            return buildViolations(builder.id(id));
+        } finally {
+            builders.release(builder);
+        }
+    }
+
+    /*
+     Opt-in canonicalization: equal id strings get the same, already validated, instance back.
+     e.g. ID.buildViolations(id, Interner.weak(ID::footprint))
+     */
+    static Validation<Seq<Violation>,ID> buildViolations(final String id, final Interner<String,ID> interner) {
+        return interner.intern(id, i -> buildViolations(i));
+    }
+
+    /*
+     Memoized: repeated id strings, valid or not, get their earlier result back without revalidating.
+     */
+    static Validation<Seq<Violation>,ID> buildViolations(final String id,
+                                                     final ValidationCache<String,Seq<Violation>,ID> cache) {
+        return cache.get(id, i -> buildViolations(i));
+    }
+
+    // rough bytes held by one instance, for Interner statistics
+    static long footprint(final ID id) {
+        return 16 + Interner.stringFootprint(id.id());
     }
 
 }
@@ -0,0 +1,56 @@
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ A Lookup over an in-memory set, standing in for a remote service in tests and benchmarks.
+ Each call answers after a fixed latency, without tying up a thread while it waits.
+ */
+public final class InMemoryLookup<K> implements Lookup<K> {
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "InMemoryLookup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Set<K> keys = ConcurrentHashMap.newKeySet();
+    private final long latencyNanos;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder keysLookedUp = new LongAdder();
+
+    public InMemoryLookup(final long latency, final TimeUnit unit) {
+        this.latencyNanos = unit.toNanos(latency);
+    }
+
+    public InMemoryLookup<K> add(final K key) {
+        keys.add(key);
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<Set<K>> existing(final Set<K> asked) {
+        calls.increment();
+        keysLookedUp.add(asked.size());
+        final Set<K> found = new HashSet<>();
+        for (final K key : asked) {
+            if (keys.contains(key)) {
+                found.add(key);
+            }
+        }
+        if (0 == latencyNanos) {
+            return CompletableFuture.completedFuture(found);
+        }
+        final CompletableFuture<Set<K>> result = new CompletableFuture<>();
+        timer.schedule(() -> result.complete(found), latencyNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    public long calls() {return calls.sum();}
+    public long keysLookedUp() {return keysLookedUp.sum();}
+}
@@ -0,0 +1,148 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ The default ValidationMetrics: pass/fail counts per rule and parameter, and a latency histogram
+ per validated type, all in LongAdders.
+
+ Looking up a counter is an array index (by RuleId) plus a ConcurrentHashMap get() on the parameter
+ name, so it allocates nothing once the counter exists. Histogram buckets are powers of two of
+ nanoseconds, so percentiles are only accurate to within a factor of two.
+ */
+public final class InMemoryMetrics implements ValidationMetrics {
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final ConcurrentHashMap<String, Counter>[] rules = new ConcurrentHashMap[RuleId.values().length];
+    private final ConcurrentHashMap<String, Histogram> types = new ConcurrentHashMap<>();
+
+    public InMemoryMetrics() {
+        for (int i = 0; i < rules.length; i++) {
+            rules[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    public Counter rule(final RuleId rule, final String parameterName) {
+        final ConcurrentHashMap<String, Counter> counters = rules[rule.ordinal()];
+        final String key = null == parameterName ? "" : parameterName;
+        final Counter counter = counters.get(key);
+        return null != counter ? counter : counters.computeIfAbsent(key, k -> new Counter());
+    }
+
+    @Override
+    public Histogram type(final String typeName) {
+        final Histogram histogram = types.get(typeName);
+        return null != histogram ? histogram : types.computeIfAbsent(typeName, k -> new Histogram());
+    }
+
+    public long passed(final RuleId rule, final String parameterName) {
+        return rule(rule, parameterName).passed.sum();
+    }
+
+    public long failed(final RuleId rule, final String parameterName) {
+        return rule(rule, parameterName).failed.sum();
+    }
+
+    public Histogram latency(final String typeName) {
+        return type(typeName);
+    }
+
+    /*
+     One line per rule and parameter, then one per type, e.g.
+       NOT_BLANK(SSN) passed=1000 failed=12
+       SSN count=1012 invalid=12 mean=83ns p50<=128ns p99<=512ns
+     */
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+        for (final RuleId rule : RuleId.values()) {
+            for (final Map.Entry<String, Counter> counter : new TreeMap<>(rules[rule.ordinal()]).entrySet()) {
+                report.append(String.format("%s(%s) passed=%d failed=%d%n", rule, counter.getKey(),
+                                            counter.getValue().passed.sum(), counter.getValue().failed.sum()));
+            }
+        }
+        for (final Map.Entry<String, Histogram> type : new TreeMap<>(types).entrySet()) {
+            report.append(type.getKey()).append(' ').append(type.getValue()).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    public static final class Counter implements RuleCounter {
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        @Override
+        public void passed() {passed.increment();}
+
+        @Override
+        public void failed() {failed.increment();}
+    }
+
+    public static final class Histogram implements LatencyRecorder {
+        // bucket i counts latencies in [2^(i-1), 2^i) nanoseconds; bucket 0 counts 0
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder invalid = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void record(final long nanos, final boolean valid) {
+            final long clamped = Math.max(0, nanos);
+            buckets[Math.min(63, 64 - Long.numberOfLeadingZeros(clamped))].increment();
+            totalNanos.add(clamped);
+            if (!valid) {
+                invalid.increment();
+            }
+        }
+
+        public long count() {
+            long count = 0;
+            for (final LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        public long invalid() {return invalid.sum();}
+
+        public double meanNanos() {
+            final long count = count();
+            return 0 == count ? 0 : (double) totalNanos.sum() / count;
+        }
+
+        /*
+         An upper bound on the given percentile (0 to 100) of recorded latencies: the top of the
+         bucket it falls in. 0 if nothing was recorded.
+         */
+        public long percentileNanos(final double percentile) {
+            final long[] counts = new long[buckets.length];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            final long rank = (long) Math.ceil(percentile / 100 * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return 0 == i ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d invalid=%d mean=%.0fns p50<=%dns p99<=%dns",
+                                 count(), invalid(), meanNanos(), percentileNanos(50), percentileNanos(99));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+import org.immutables.value.Value;
+
+// base wrapper type for int values, so they're neither boxed nor validated through Validation<String,Integer>
+abstract class IntWrapper {
+    @Value.Parameter
+    public abstract int value();
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + value() + ")";
+    }
+}
@@ -0,0 +1,223 @@
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import io.vavr.control.Validation;
+
+/*
+ Opt-in canonicalization for validated value objects such as SSN and ID, keyed on the raw input.
+
+ The first time a key is seen, the value is built (and so validated) as usual and, if valid, becomes
+ the canonical instance. After that, equal keys get the canonical instance back without building or
+ validating anything. Invalid results are passed through, never interned.
+
+ Two flavors:
+   weak()    canonical instances are only weakly held, so the interner never keeps a value alive
+             by itself
+   bounded() at most maximumSize entries are held; beyond that, entries not used lately are dropped
+
+ Lookups are a ConcurrentHashMap get(); misses build outside any lock and race with putIfAbsent(),
+ so no caller ever waits on another one. Counters are LongAdders.
+
+ A bounded interner evicts in the style of the CLOCK algorithm, like ValidationCache: a hit marks the
+ entry referenced, and whichever thread wins a try-lock when the interner is over size sweeps a hand
+ over the entries, giving referenced ones a second chance (clearing the mark) and evicting the first
+ one it finds unmarked, or the last of a few it samples if all were marked. Hot values stay canonical
+ however many cold ones pass through.
+
+ immutables.io can intern too (@Value.Immutable(intern = true)) but only strongly and without bound,
+ and only after building and validating the new instance.
+ */
+public final class Interner<K, T> {
+
+    private static final int SAMPLE = 8;
+
+    // values are Refs if weak, Helds if bounded
+    private final ConcurrentHashMap<K, Object> canonical = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> collected; // null unless weak
+    private final int maximumSize;            // Integer.MAX_VALUE unless bounded
+    private final ToLongFunction<? super T> footprint;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private Iterator<Map.Entry<K, Object>> hand; // only touched while sweeping
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private Interner(final boolean weak, final int maximumSize, final ToLongFunction<? super T> footprint) {
+        this.collected = weak ? new ReferenceQueue<>() : null;
+        this.maximumSize = maximumSize;
+        this.footprint = Objects.requireNonNull(footprint, "footprint");
+    }
+
+    /*
+     footprint estimates the bytes one instance occupies (including objects only it refers to);
+     every hit adds that to bytesSaved().
+     */
+    public static <K, T> Interner<K, T> weak(final ToLongFunction<? super T> footprint) {
+        return new Interner<>(true, Integer.MAX_VALUE, footprint);
+    }
+
+    public static <K, T> Interner<K, T> bounded(final int maximumSize, final ToLongFunction<? super T> footprint) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException(String.format("maximumSize (%d) must be positive.", maximumSize));
+        }
+        return new Interner<>(false, maximumSize, footprint);
+    }
+
+    /*
+     The canonical instance for key, building it with build on a miss.
+     e.g. interner.intern(ssn, s -> SSN.buildViolations(ImmutableSSN.builder().ssn(s)))
+     */
+    public <E> Validation<E, T> intern(final K key, final Function<? super K, ? extends Validation<E, ? extends T>> build) {
+        final T existing = lookup(key);
+        if (null != existing) {
+            hits.increment();
+            bytesSaved.add(footprint.applyAsLong(existing));
+            return Validation.valid(existing);
+        }
+        misses.increment();
+        final Validation<E, T> built = Validation.narrow(build.apply(key));
+        if (built.isInvalid()) {
+            return built;
+        }
+        final T raced = publish(key, built.get());
+        return null == raced ? built : Validation.valid(raced);
+    }
+
+    public long hits() {return hits.sum();}
+    public long misses() {return misses.sum();}
+    public long bytesSaved() {return bytesSaved.sum();}
+
+    // entries currently held; in a weak interner some may already be collected but not yet purged
+    public int size() {return canonical.size();}
+
+    public void clear() {canonical.clear();}
+
+    @SuppressWarnings("unchecked")
+    private T lookup(final K key) {
+        final Object held = canonical.get(key);
+        if (null == held) {
+            return null;
+        }
+        if (null != collected) {
+            return ((Ref<K, T>) held).get();
+        }
+        final Held<T> entry = (Held<T>) held;
+        if (!entry.referenced) {
+            entry.referenced = true; // only written when it changes, so hot entries stay read-only
+        }
+        return entry.value;
+    }
+
+    // publishes value as canonical for key, unless another thread got there first: then returns theirs
+    @SuppressWarnings("unchecked")
+    private T publish(final K key, final T value) {
+        if (null == collected) {
+            final Held<T> raced = (Held<T>) canonical.putIfAbsent(key, new Held<>(value));
+            if (null == raced) {
+                trim();
+                return null;
+            }
+            return raced.value;
+        }
+        purge();
+        final Ref<K, T> ref = new Ref<>(key, value, collected);
+        while (true) {
+            final Ref<K, T> held = (Ref<K, T>) canonical.putIfAbsent(key, ref);
+            if (null == held) {
+                return null;
+            }
+            final T raced = held.get();
+            if (null != raced) {
+                return raced;
+            }
+            // collected but not purged yet: take its place
+            if (canonical.replace(key, held, ref)) {
+                return null;
+            }
+        }
+    }
+
+    private void trim() {
+        if (canonical.size() <= maximumSize || !sweeping.compareAndSet(false, true)) {
+            return; // nothing to do, or somebody else is on it
+        }
+        try {
+            while (canonical.size() > maximumSize) {
+                evictOne();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictOne() {
+        Map.Entry<K, Object> victim = null;
+        for (int sampled = 0; sampled < SAMPLE; sampled++) {
+            if (null == hand || !hand.hasNext()) {
+                hand = canonical.entrySet().iterator();
+                if (!hand.hasNext()) {
+                    break;
+                }
+            }
+            victim = hand.next();
+            final Held<T> entry = (Held<T>) victim.getValue();
+            if (!entry.referenced) {
+                break;
+            }
+            entry.referenced = false;
+        }
+        if (null != victim) {
+            canonical.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void purge() {
+        Ref<K, T> ref;
+        while (null != (ref = (Ref<K, T>) collected.poll())) {
+            canonical.remove(ref.key, ref);
+        }
+    }
+
+    // a bounded interner's entry; referenced is updated racily, which only makes eviction less accurate
+    private static final class Held<T> {
+        final T value;
+        volatile boolean referenced;
+
+        Held(final T value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Ref<K, T> extends WeakReference<T> {
+        final K key;
+
+        Ref(final K key, final T value, final ReferenceQueue<? super T> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /*
+     Rough bytes held by a String on a 64-bit JVM with compressed oops and compact strings:
+     the String itself plus its array, assuming Latin-1 content.
+     */
+    public static long stringFootprint(final String s) {
+        return 24 + align(16 + s.length());
+    }
+
+    static long align(final long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,348 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Pattern;
+
+/*
+ A pull parser for JSON: the caller asks for one token after another and decides what to do with
+ each, so nothing is ever built but the Strings it asks for.
+
+ Memory stays bounded whatever the input: a fixed character buffer, one StringBuilder for the
+ string or number being read (strings longer than maximumString characters are refused), and a
+ nesting stack of at most MAXIMUM_DEPTH levels.
+
+ Malformed JSON fails with an IOException naming the character offset, just like a failing Reader.
+ */
+final class JsonReader {
+    enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, TRUE, FALSE, NULL, END_DOCUMENT }
+
+    static final int MAXIMUM_DEPTH = 64;
+
+    private static final Pattern number = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    // what the innermost scope expects next
+    private static final int EMPTY_DOCUMENT = 0, NONEMPTY_DOCUMENT = 1,
+                             EMPTY_ARRAY = 2, NONEMPTY_ARRAY = 3,
+                             EMPTY_OBJECT = 4, DANGLING_NAME = 5, NONEMPTY_OBJECT = 6;
+
+    private final Reader in;
+    private final int maximumString;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long offset; // characters consumed before buffer[0]
+
+    private final int[] scopes = new int[MAXIMUM_DEPTH + 1];
+    private int depth = 1;
+
+    private Token peeked;
+    private final StringBuilder text = new StringBuilder(); // of the peeked NAME, STRING or NUMBER
+
+    JsonReader(final Reader in) {
+        this(in, 1 << 16);
+    }
+
+    JsonReader(final Reader in, final int maximumString) {
+        this.in = in;
+        this.maximumString = maximumString;
+        scopes[0] = EMPTY_DOCUMENT;
+    }
+
+    Token peek() throws IOException {
+        if (null == peeked) {
+            peeked = advance();
+        }
+        return peeked;
+    }
+
+    boolean hasNext() throws IOException {
+        final Token token = peek();
+        return Token.END_OBJECT != token && Token.END_ARRAY != token && Token.END_DOCUMENT != token;
+    }
+
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return text.toString();
+    }
+
+    String nextString() throws IOException {
+        expect(Token.STRING);
+        return text.toString();
+    }
+
+    // the number's text, e.g. "40" or "-1.5e3"
+    String nextNumber() throws IOException {
+        expect(Token.NUMBER);
+        return text.toString();
+    }
+
+    void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    // skips the next value, however deeply nested, without keeping any of it
+    void skipValue() throws IOException {
+        int nesting = 0;
+        do {
+            final Token token = peek();
+            peeked = null;
+            switch (token) {
+                case BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    nesting++;
+                    break;
+                case BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    nesting++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    nesting--;
+                    break;
+                case END_DOCUMENT:
+                    throw malformed("a value");
+                default:
+                    break;
+            }
+        } while (nesting > 0);
+    }
+
+    // the offset of the next character to be read
+    long offset() {
+        return offset + position;
+    }
+
+    private void expect(final Token token) throws IOException {
+        final Token actual = peek();
+        if (token != actual) {
+            throw new IOException(String.format("Malformed JSON at character %d: expected %s but found %s.",
+                                                offset(), token, actual));
+        }
+        peeked = null;
+    }
+
+    private void push(final int scope) throws IOException {
+        if (depth == scopes.length) {
+            throw new IOException(String.format("JSON at character %d nests deeper than %d levels.", offset(), MAXIMUM_DEPTH));
+        }
+        scopes[depth++] = scope;
+    }
+
+    private Token advance() throws IOException {
+        final int scope = scopes[depth - 1];
+        switch (scope) {
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                if (']' == peekNonWhitespace()) {
+                    position++;
+                    return Token.END_ARRAY;
+                }
+                return value();
+            case NONEMPTY_ARRAY: {
+                final int c = nextNonWhitespace();
+                if (']' == c) {
+                    return Token.END_ARRAY;
+                }
+                if (',' != c) {
+                    throw malformed("',' or ']'");
+                }
+                return value();
+            }
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT: {
+                int c = nextNonWhitespace();
+                if ('}' == c) {
+                    return Token.END_OBJECT;
+                }
+                if (NONEMPTY_OBJECT == scope) {
+                    if (',' != c) {
+                        throw malformed("',' or '}'");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if ('"' != c) {
+                    throw malformed("a name");
+                }
+                readString();
+                scopes[depth - 1] = DANGLING_NAME;
+                return Token.NAME;
+            }
+            case DANGLING_NAME:
+                if (':' != nextNonWhitespace()) {
+                    throw malformed("':'");
+                }
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                return value();
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                return value();
+            default: // NONEMPTY_DOCUMENT
+                if (-1 != peekNonWhitespace()) {
+                    throw malformed("the end of the document");
+                }
+                return Token.END_DOCUMENT;
+        }
+    }
+
+    private Token value() throws IOException {
+        final int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                readString();
+                return Token.STRING;
+            case 't':
+                literal("rue");
+                return Token.TRUE;
+            case 'f':
+                literal("alse");
+                return Token.FALSE;
+            case 'n':
+                literal("ull");
+                return Token.NULL;
+            default:
+                if ('-' == c || (c >= '0' && c <= '9')) {
+                    readNumber((char) c);
+                    return Token.NUMBER;
+                }
+                throw malformed("a value");
+        }
+    }
+
+    private void literal(final String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (rest.charAt(i) != read()) {
+                throw malformed("true, false or null");
+            }
+        }
+    }
+
+    // the characters of a number, checked against the JSON grammar
+    private void readNumber(final char first) throws IOException {
+        text.setLength(0);
+        text.append(first);
+        for (int c = peekChar(); (c >= '0' && c <= '9') || '.' == c || 'e' == c || 'E' == c || '+' == c || '-' == c; c = peekChar()) {
+            append((char) c);
+            position++;
+        }
+        if (!number.matcher(text).matches()) {
+            throw malformed("a number");
+        }
+    }
+
+    // the rest of a string whose opening quote has been read, unescaped into text
+    private void readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            final int c = read();
+            if ('"' == c) {
+                return;
+            }
+            if (-1 == c || c < 0x20) {
+                throw malformed("the end of the string");
+            }
+            if ('\\' != c) {
+                append((char) c);
+                continue;
+            }
+            final int escaped = read();
+            switch (escaped) {
+                case '"': case '\\': case '/': append((char) escaped); break;
+                case 'b': append('\b'); break;
+                case 'f': append('\f'); break;
+                case 'n': append('\n'); break;
+                case 'r': append('\r'); break;
+                case 't': append('\t'); break;
+                case 'u': {
+                    int unicode = 0;
+                    for (int i = 0; i < 4; i++) {
+                        final int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw malformed("four hex digits");
+                        }
+                        unicode = unicode << 4 | digit;
+                    }
+                    append((char) unicode);
+                    break;
+                }
+                default:
+                    throw malformed("an escape sequence");
+            }
+        }
+    }
+
+    private void append(final char c) throws IOException {
+        if (text.length() == maximumString) {
+            throw new IOException(String.format("JSON string at character %d is longer than %d characters.",
+                                                offset(), maximumString));
+        }
+        text.append(c);
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        final int c = peekNonWhitespace();
+        if (-1 != c) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        for (int c = peekChar(); ; c = peekChar()) {
+            if (' ' != c && '\n' != c && '\r' != c && '\t' != c) {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    private int read() throws IOException {
+        final int c = peekChar();
+        if (-1 != c) {
+            position++;
+        }
+        return c;
+    }
+
+    // the next character, or -1 at the end of the input
+    private int peekChar() throws IOException {
+        if (position == limit) {
+            offset += limit;
+            position = 0;
+            limit = 0;
+            final int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return -1;
+            }
+            limit = read;
+        }
+        return buffer[position];
+    }
+
+    private IOException malformed(final String expected) {
+        return new IOException(String.format("Malformed JSON at character %d: expected %s.", offset(), expected));
+    }
+}
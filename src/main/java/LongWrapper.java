@@ -0,0 +1,11 @@
+import org.immutables.value.Value;
+
+// base wrapper type for long values, so they're neither boxed nor validated through Validation<String,Long>
+abstract class LongWrapper {
+    @Value.Parameter
+    public abstract long value();
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + value() + ")";
+    }
+}
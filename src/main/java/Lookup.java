@@ -0,0 +1,16 @@
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ The SPI for rules that need to look something up elsewhere, e.g. "ID must exist" or "SSN must not
+ already be registered". One call answers for a whole batch of keys, so implementations can make a
+ single round trip (one SQL IN query, one multi-get) however many keys are asked about.
+
+ Implementations must not block the calling thread: complete the future when the answer arrives.
+ BatchingLookup coalesces the keys of concurrent validations into these batches.
+ */
+public interface Lookup<K> {
+
+    // the subset of keys that exist
+    CompletableFuture<Set<K>> existing(Set<K> keys);
+}
@@ -0,0 +1,276 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.regex.Pattern;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ Loads persons from a CSV file by memory-mapping it and validating each field where it lies,
+ instead of first turning every field into a String.
+
+ The format is UTF-8, one row per line (\n or \r\n), five fields with no quoting:
+
+     ssn,id,firstName,lastName,age
+
+ An empty ssn or id means it's absent. Empty lines are skipped.
+
+ The SSN format, blank ID, blank or overlong name, age range and adults-require-SSN rules all run on the
+ mapped bytes. Only rows that pass become Strings and value objects, or go straight into a
+ PersonTable as bytes and never become Strings at all. Rows that fail, and rows with non-ASCII
+ bytes (where the byte-level rules would have to second-guess String's idea of a character), are
+ decoded and run through parseRow(), the String-based path. So every row gets the verdict and
+ messages it would get from parseRow(), and invalid rows are reported with the file offset of
+ their first byte.
+
+ The limits are those of the RuleSet in force when load() is called. Under one that narrows the SSN
+ format, rows with an SSN take the parseRow() path, since the byte-level check is of the format alone.
+
+ The file is mapped window by window (64MB by default), so it can be larger than the address
+ space a single mapping allows.
+ */
+public final class MappedLoader {
+    private static final int FIELDS = 5;
+    private static final int SSN = 0, ID = 1, FIRST_NAME = 2, LAST_NAME = 3, AGE = 4;
+    private static final Pattern agePattern = Pattern.compile("-?\\d{1,9}");
+
+    private final int window;
+
+    public MappedLoader() {
+        this(64 << 20);
+    }
+
+    MappedLoader(final int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException(String.format("window (%d) must be positive.", window));
+        }
+        this.window = window;
+    }
+
+    /*
+     Sends each valid row, as a Person, to valid, and the violations of each invalid row, along with
+     its file offset, to invalid. Returns the number of rows.
+     */
+    public long load(final Path csv,
+                     final Consumer<? super Person> valid,
+                     final ObjLongConsumer<? super Seq<Violation>> invalid) throws IOException {
+        return load(csv, new Sink() {
+            @Override
+            public void accept(final ByteBuffer bytes, final int[] bounds, final int packedSSN, final int age) {
+                final ImmutablePerson.Builder builder = ImmutablePerson.builder()
+                        .firstName(decode(bytes, bounds[2 * FIRST_NAME], bounds[2 * FIRST_NAME + 1]))
+                        .lastName(decode(bytes, bounds[2 * LAST_NAME], bounds[2 * LAST_NAME + 1]))
+                        .age(age);
+                if (SSNFormat.INVALID != packedSSN) {
+                    builder.setValueSsn(PackedSSN.of(packedSSN));
+                }
+                if (bounds[2 * ID] != bounds[2 * ID + 1]) {
+                    builder.setValueId(ImmutableID.of(decode(bytes, bounds[2 * ID], bounds[2 * ID + 1])));
+                }
+                valid.accept(builder.build());
+            }
+
+            @Override
+            public void accept(final Person person) {
+                valid.accept(person);
+            }
+        }, invalid);
+    }
+
+    /*
+     Appends each valid row to table, without making Strings of it, and reports invalid rows as above.
+     */
+    public long load(final Path csv,
+                     final PersonTable table,
+                     final ObjLongConsumer<? super Seq<Violation>> invalid) throws IOException {
+        return load(csv, new Sink() {
+            @Override
+            public void accept(final ByteBuffer bytes, final int[] bounds, final int packedSSN, final int age) {
+                final boolean hasId = bounds[2 * ID] != bounds[2 * ID + 1];
+                table.add(age, packedSSN, bytes,
+                          hasId ? bounds[2 * ID] : -1, bounds[2 * ID + 1],
+                          bounds[2 * FIRST_NAME], bounds[2 * FIRST_NAME + 1],
+                          bounds[2 * LAST_NAME], bounds[2 * LAST_NAME + 1]);
+            }
+
+            @Override
+            public void accept(final Person person) {
+                table.add(person);
+            }
+        }, invalid);
+    }
+
+    /*
+     The String-based path: one CSV line (without its line terminator) validated as a Person.
+     */
+    public static Validation<Seq<Violation>, Person> parseRow(final String line) {
+        final String[] fields = line.split(",", -1);
+        if (FIELDS != fields.length) {
+            return Validation.invalid(List.of(Violation.of(RuleId.REQUIRED_ATTRIBUTES, null, String.format(
+                    "Row has %d fields: expected %d (ssn,id,firstName,lastName,age).", fields.length, FIELDS))));
+        }
+        final Validation<Violation, String> agev = Rules.matches(fields[AGE], "age", agePattern);
+        final RawPerson raw = RawPerson.of(
+                fields[SSN].isEmpty() ? null : fields[SSN],
+                fields[ID].isEmpty() ? null : fields[ID],
+                fields[FIRST_NAME],
+                fields[LAST_NAME],
+                agev.isValid() ? Integer.parseInt(fields[AGE]) : 0);
+        return agev.isValid() ?
+               raw.toPerson() :
+               Validation.invalid(raw.toPerson().fold(violations -> violations.prepend(agev.getError()),
+                                                     person -> List.of(agev.getError())));
+    }
+
+    private interface Sink {
+        // a row that passed the byte-level rules; packedSSN is SSNFormat.INVALID if it has no SSN
+        void accept(ByteBuffer bytes, int[] bounds, int packedSSN, int age);
+
+        // a row that passed parseRow()
+        void accept(Person person);
+    }
+
+    private long load(final Path csv, final Sink sink,
+                      final ObjLongConsumer<? super Seq<Violation>> invalid) throws IOException {
+        try (final FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final int[] bounds = new int[2 * FIELDS];
+            final RuleSet rules = Checks.rules();
+            long position = 0;
+            long rows = 0;
+            while (position < size) {
+                final int length = (int) Math.min(window, size - position);
+                final boolean last = position + length == size;
+                final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int start = 0;
+                while (start < length) {
+                    int end = start;
+                    while (end < length && '\n' != bytes.get(end)) {
+                        end++;
+                    }
+                    if (end == length && !last) {
+                        break; // the row continues in the next window
+                    }
+                    final int to = end > start && '\r' == bytes.get(end - 1) ? end - 1 : end;
+                    if (to > start) {
+                        row(bytes, start, to, position + start, bounds, rules, sink, invalid);
+                        rows++;
+                    }
+                    start = end + 1;
+                }
+                if (0 == start) {
+                    throw new IOException(String.format(
+                            "Row at offset %d of %s is longer than the %d byte window.", position, csv, window));
+                }
+                position = Math.min(size, position + start);
+            }
+            return rows;
+        }
+    }
+
+    private static void row(final ByteBuffer bytes, final int from, final int to, final long offset,
+                            final int[] bounds, final RuleSet rules, final Sink sink,
+                            final ObjLongConsumer<? super Seq<Violation>> invalid) {
+        if (split(bytes, from, to, bounds)) {
+            final int ssnFrom = bounds[2 * SSN], ssnTo = bounds[2 * SSN + 1];
+            final boolean hasSSN = ssnFrom != ssnTo;
+            final int packedSSN = hasSSN ? SSNFormat.pack(bytes, ssnFrom, ssnTo) : SSNFormat.INVALID;
+            final int age = parseAge(bytes, bounds[2 * AGE], bounds[2 * AGE + 1]);
+            if ((!hasSSN || SSNFormat.INVALID != packedSSN && null == rules.ssnPattern())
+                && idPasses(bytes, bounds[2 * ID], bounds[2 * ID + 1])
+                && namePasses(bytes, bounds, rules.maximumNameLength())
+                && Integer.MIN_VALUE != age
+                && null == Rules.adultsRequireSSNViolation(hasSSN, "ssn", age, rules.ssnRequiredAboveAge())
+                && null == Rules.rangeViolation(age, "age", Age.MINIMUM, Age.MAXIMUM)) {
+                sink.accept(bytes, bounds, packedSSN, age);
+                return;
+            }
+        }
+        final Validation<Seq<Violation>, Person> person = parseRow(decode(bytes, from, to));
+        if (person.isValid()) {
+            sink.accept(person.get());
+        } else {
+            invalid.accept(person.getError(), offset);
+        }
+    }
+
+    /*
+     Fills bounds with the [from, to) of each field. False unless the row is all ASCII and has
+     exactly FIELDS fields.
+     */
+    private static boolean split(final ByteBuffer bytes, final int from, final int to, final int[] bounds) {
+        int field = 0;
+        bounds[0] = from;
+        for (int i = from; i < to; i++) {
+            final byte b = bytes.get(i);
+            if (b < 0) {
+                return false;
+            }
+            if (',' == b) {
+                if (++field == FIELDS) {
+                    return false;
+                }
+                bounds[2 * field - 1] = i;
+                bounds[2 * field] = i + 1;
+            }
+        }
+        bounds[2 * field + 1] = to;
+        return FIELDS - 1 == field;
+    }
+
+    private static boolean idPasses(final ByteBuffer bytes, final int from, final int to) {
+        return from == to || !blank(bytes, from, to); // empty means absent
+    }
+
+    // name() is firstName + " " + lastName, and the bytes are ASCII, so bytes are chars
+    private static boolean namePasses(final ByteBuffer bytes, final int[] bounds, final int maximumLength) {
+        final int firstFrom = bounds[2 * FIRST_NAME], firstTo = bounds[2 * FIRST_NAME + 1];
+        final int lastFrom = bounds[2 * LAST_NAME], lastTo = bounds[2 * LAST_NAME + 1];
+        return (firstTo - firstFrom) + 1 + (lastTo - lastFrom) <= maximumLength
+               && !(blank(bytes, firstFrom, firstTo) && blank(bytes, lastFrom, lastTo));
+    }
+
+    // StringUtils.isBlank() for ASCII
+    private static boolean blank(final ByteBuffer bytes, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(bytes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the age, or Integer.MIN_VALUE if it doesn't match agePattern
+    private static int parseAge(final ByteBuffer bytes, final int from, final int to) {
+        final boolean negative = to > from && '-' == bytes.get(from);
+        final int digits = negative ? from + 1 : from;
+        if (to == digits || to - digits > 9) {
+            return Integer.MIN_VALUE;
+        }
+        int age = 0;
+        for (int i = digits; i < to; i++) {
+            final byte b = bytes.get(i);
+            if (b < '0' || b > '9') {
+                return Integer.MIN_VALUE;
+            }
+            age = age * 10 + (b - '0');
+        }
+        return negative ? -age : age;
+    }
+
+    private static String decode(final ByteBuffer bytes, final int from, final int to) {
+        final byte[] copy = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            copy[i - from] = bytes.get(i);
+        }
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+}
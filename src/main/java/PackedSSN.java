@@ -0,0 +1,88 @@
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ An SSN stored as its nine digits packed into an int, instead of as a String. An instance is a
+ single 16-byte object, where an ImmutableSSN drags along a String and that String's array too.
+ Equality, hashing and ordering are plain int operations. toString() and the error messages are
+ the same as for ImmutableSSN, and the two compare equal when they hold the same number.
+
+ Hand-written rather than generated: immutables.io won't let a value type extend another one.
+ */
+final class PackedSSN extends SSN {
+    private final int packed;
+
+    /*
+     private most-general constructor
+     It performs no validation!
+     */
+    private PackedSSN(final int packed) {
+        this.packed = packed;
+    }
+
+    /*
+     Like ImmutableSSN.of(): throws IllegalStateException if packed isn't nine digits.
+     */
+    static PackedSSN of(final int packed) {
+        return new PackedSSN(packed).check();
+    }
+
+    @Override
+    int packed() {
+        return packed;
+    }
+
+    @Override
+    String ssn() {
+        return SSNFormat.unpack(packed);
+    }
+
+    /*
+     Packed digits in range are ddd-dd-dddd by construction, so only a RuleSet that narrows the
+     format has anything more to say.
+     */
+    @Override
+    protected PackedSSN check() {
+        final Validation<Seq<Violation>,PackedSSN> range = validate();
+        if (range.isValid() && null != Checks.rules().ssnPattern()) {
+            Checks.check((SSN) this, RuleSet::ssn);
+            return this;
+        }
+        return Checks.check(this, range);
+    }
+
+    private Validation<Seq<Violation>,PackedSSN> validate() {
+        final boolean inRange = packed >= 0 && packed <= SSNFormat.MAX_PACKED;
+        Metrics.record(RuleId.RANGE, "SSN", inRange);
+        return inRange ?
+               Validation.valid(this) :
+               Validation.invalid(List.of(Violation.of(RuleId.RANGE, "SSN", packed, 0, SSNFormat.MAX_PACKED)));
+    }
+
+    /*
+     No validation at all: only for packed digits known to be valid, e.g. read back by BinaryCodec.
+     */
+    static PackedSSN trusted(final int packed) {
+        return new PackedSSN(packed);
+    }
+
+    /*
+     Parses ssn into a PackedSSN, with the same violations as SSN.buildValidation() for bad input.
+     */
+    static Validation<String,SSN> buildValidation(final String ssn) {
+        return buildViolations(ssn).mapError(Validations::combineViolations);
+    }
+
+    static Validation<Seq<Violation>,SSN> buildViolations(final String ssn) {
+        final int packed = SSNFormat.pack(ssn);
+        // content that doesn't pack is exactly content that fails SSN's format rules
+        if (SSNFormat.INVALID == packed) {
+            return Validation.invalid(SSN.validateContent(ssn).getError());
+        }
+        final RuleSet rules = Checks.rules();
+        return null == rules.ssnPattern() ?
+               Validation.valid(new PackedSSN(packed)) :
+               rules.ssn().validate(new PackedSSN(packed));
+    }
+}
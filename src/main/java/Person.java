@@ -1,9 +1,8 @@
 import org.immutables.value.Value;
 import org.immutables.vavr.encodings.VavrEncodingEnabled;
 
-import io.vavr.control.Either;
+import io.vavr.collection.Seq;
 import io.vavr.control.Option;
-import io.vavr.control.Try;
 import io.vavr.control.Validation;
 
 @Value.Immutable
@@ -27,64 +26,119 @@ public abstract class Person {
      */
     public String name() { return firstName() + " " + lastName();}
 
+    /*
+     This person in CompactPerson's layout, for holding many of them: equal to this, in much less heap.
+     */
+    public Person compact() {
+        return CompactPerson.copyOf(this);
+    }
+
+    /*
+     Written here instead of generated, so that a CompactPerson and an ImmutablePerson holding the same
+     values are equal. The same attributes and formulas as Immutables would generate: name() is auxiliary.
+     A PersonTable.Row is a cursor, equal only to itself, so no other Person equals one either.
+     */
+    @Override
+    public boolean equals(final Object another) {
+        if (this == another) {
+            return true;
+        }
+        if (!(another instanceof Person) || another instanceof PersonTable.Row) {
+            return false;
+        }
+        final Person person = (Person) another;
+        return id().equals(person.id())
+               && firstName().equals(person.firstName())
+               && lastName().equals(person.lastName())
+               && age() == person.age()
+               && ssn().equals(person.ssn());
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 5381;
+        h += (h << 5) + id().hashCode();
+        h += (h << 5) + firstName().hashCode();
+        h += (h << 5) + lastName().hashCode();
+        h += (h << 5) + age();
+        h += (h << 5) + ssn().hashCode();
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "Person{id=" + id() + ", firstName=" + firstName() + ", lastName=" + lastName()
+               + ", age=" + age() + ", ssn=" + ssn() + "}";
+    }
+
     @Value.Check
     protected Person check() {
-        return validate()
-                // toEither().getOrElseThrow() is required because https://github.com/vavr-io/vavr/issues/2207
-                .toEither()
-                .getOrElseThrow(errors->new IllegalStateException(errors));
+        return Checks.check(this, RuleSet::person);
     }
 
+    static final int MAXIMUM_NAME_LENGTH = 16;
+
     /*
      In https://github.com/immutables/immutables/issues/451 I propose
      @Value.Validate to generate a buildValidation() on the generated Builder class
+
+     Under FAIL_FAST the cheap adultsRequireSSN rule runs first, and name() isn't even computed unless it passes.
+     Copies made with withAge()/withSsn() don't compute it either, since the name rules only depend on the names.
+
+     The limits come from the RuleSet in force; RuleSet.DEFAULTS builds this with MAXIMUM_NAME_LENGTH
+     and Rules.SSN_REQUIRED_ABOVE_AGE.
      */
-    private Validation<String, Person> validate() {
-        return Validation.combine(
-                nameValidation(name(), "name"),
-                adultsRequireSSN(ssn(), "ssn", age()))
-                         .ap((nameIgnored, ssnoIgnored) ->
-                             /*
-                              name is a derived property so we don't actually need to set it (it's already set)
-                              return ImmutablePerson.copyOf(this).withName(name);
-                              adultsRequireSSN() won't change SSN
-                              */
-                             this
-                         )
-                         .mapError(Validations::combineErrors);
+    static Validator<Person> validator(final int maximumNameLength, final int ssnRequiredAboveAge) {
+        return Validator.builder(Person.class)
+                .attribute("name", Person::name, Validator.Cost.MODERATE,
+                           Rules.notBlank(), Rules.maximumLength(maximumNameLength))
+                .dependsOn(Person::firstName, Person::lastName)
+                .rule(RuleId.ADULTS_REQUIRE_SSN, "ssn", Validator.Cost.CHEAP,
+                      (person, parameterName) ->
+                              Rules.adultsRequireSSNViolation(person.ssn().isDefined(), parameterName, person.age(), ssnRequiredAboveAge))
+                .dependsOn(Person::age, Person::ssn)
+                .rule(RuleId.RANGE, "age", Validator.Cost.CHEAP, Rules.intRange(Person::age, Age.MINIMUM, Age.MAXIMUM))
+                .dependsOn(Person::age)
+                .build();
     }
 
     /*
      This method would get generated on the Builder class under my proposal.
-     In that case it wouldn't need to unpack the exception like this because check()
-     would be avoided
+     Until then Checks stands in for it: check() hands its errors back instead of throwing.
      */
     static Validation<String,Person> buildValidation(final ImmutablePerson.Builder builder) {
-        // go through whole construction and check() process and raise any exception
-        final Either<? extends Throwable,Person> pe = Try.of(()->(Person)builder.build()).toEither();
-        /*
-         now reverse that exception message back into a String so we can put it into our Validation
-         and let the caller manipulate it
-         */
-        return pe.isLeft() ? Validation.invalid(pe.getLeft().getMessage()) : Validation.valid(pe.get());
+        return Checks.buildValidation(builder::build);
+    }
+
+    static Validation<Seq<Violation>,Person> buildViolations(final ImmutablePerson.Builder builder) {
+        return Checks.buildViolations(builder::build);
     }
 
-    /*private*/ static Validation<String,String> nameValidation(final String name, final String parameterName) {
-        return Validations.notBlank(name, "name").combine(
-                Validations.maximumLength(name, "name", 16))
-                          .ap((n1,n2)->n1)
-                          .mapError(Validations::combineErrors);
+    static Validation<Seq<Violation>,Person> buildViolations(final ImmutablePerson.Builder builder,
+                                                             final ValidationPolicy policy) {
+        return Checks.buildViolations(builder::build, policy);
     }
 
-    private static Validation<String,Option<SSN>> adultsRequireSSN(
-            final Option<SSN> ssno,
-            final String ssnParameterName,
-            final int age) {
-        return age > 17 && ssno.isEmpty() ?
-               Validation.invalid(
-                       String.format("%d-year-old has no SSN (in '%s' parameter): violates SSN required if age > 17 years.",
-                                     age, ssnParameterName)) :
-               Validation.valid(ssno);
+    /*
+     The vavr encoding breaks the generated clear(), so this pool is reset by overwriting every attribute
+     with a constant, and only buildViolations() below may borrow from it: it sets every attribute itself.
+     */
+    private static final BuilderPool<ImmutablePerson.Builder> builders = new BuilderPool<>(
+            ImmutablePerson::builder,
+            builder -> builder.ssn(Option.none()).id(Option.none()).firstName("").lastName("").age(0));
+
+    /*
+     Same as buildViolations() on a fresh builder given all of these, on this thread's pooled builder.
+     */
+    static Validation<Seq<Violation>,Person> buildViolations(final Option<SSN> ssn, final Option<ID> id,
+                                                             final String firstName, final String lastName,
+                                                             final int age) {
+        final ImmutablePerson.Builder builder = builders.borrow();
+        try {
+            return buildViolations(builder.ssn(ssn).id(id).firstName(firstName).lastName(lastName).age(age));
+        } finally {
+            builders.release(builder);
+        }
     }
 
 }
@@ -2,7 +2,7 @@ import java.util.Optional;
 
 import org.immutables.builder.Builder;
 
-import io.vavr.Function1;
+import io.vavr.collection.Seq;
 import io.vavr.control.Validation;
 
 public class Person2 {
@@ -55,34 +55,35 @@ public class Person2 {
            final String lastName,
            final int age,
            final Optional<SSN> ssn) {
-        return new Person2(id,firstName,lastName,age,ssn).validate();
+        return Checks.rules().person2().validate(new Person2(id,firstName,lastName,age,ssn)).mapError(Validations::combineViolations);
     }
 
-    private Validation<String, Person2> validate() {
-        return Validation.combine(
-                Person.nameValidation(name(), "name"),
-                adultsRequireSSN(ssn(), "ssn", age()))
-                         .ap((nameIgnored, ssnoIgnored) ->
-                             /*
-                              name is a derived property so we don't actually need to set it (it's already set)
-                              return ImmutablePerson.copyOf(this).withName(name);
-                              adultsRequireSSN() won't change SSN
-                              */
-                                     this
-                            )
-                         .mapError(Validations::combineErrors);
+    /*
+     Not a factory builder: Person2ValidationBuilder can't take a policy. Unrendered violations, under policy.
+     */
+    static Validation<Seq<Violation>,Person2>
+    person2Violations(final Optional<ID> id,
+                      final String firstName,
+                      final String lastName,
+                      final int age,
+                      final Optional<SSN> ssn,
+                      final ValidationPolicy policy) {
+        return Checks.rules().person2().validate(new Person2(id,firstName,lastName,age,ssn), policy);
     }
 
-    // FIXME: because we have to use Optional in this class we have to duplicate this logic
-    private static Validation<String,Optional<SSN>> adultsRequireSSN(
-            final Optional<SSN> ssno,
-            final String ssnParameterName,
-            final int age) {
-        return age > 17 && !ssno.isPresent() ?
-               Validation.invalid(
-                       String.format("%d-year-old has no SSN (in '%s' parameter): violates SSN required if age > 17 years.",
-                                     age, ssnParameterName)) :
-               Validation.valid(ssno);
+    /*
+     The same rules as Person, cheapest first under FAIL_FAST, with the limits of the RuleSet in force
+     (see RuleSet.person2()).
+     */
+    static Validator<Person2> validator(final int maximumNameLength, final int ssnRequiredAboveAge) {
+        return Validator.builder(Person2.class)
+                .attribute("name", Person2::name, Validator.Cost.MODERATE,
+                           Rules.notBlank(), Rules.maximumLength(maximumNameLength))
+                .rule(RuleId.ADULTS_REQUIRE_SSN, "ssn", Validator.Cost.CHEAP,
+                      (person2, parameterName) ->
+                              Rules.adultsRequireSSNViolation(person2.ssn().isPresent(), parameterName, person2.age(), ssnRequiredAboveAge))
+                .rule(RuleId.RANGE, "age", Validator.Cost.CHEAP, Rules.intRange(Person2::age, Age.MINIMUM, Age.MAXIMUM))
+                .build();
     }
 
 }
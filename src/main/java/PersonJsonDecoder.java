@@ -0,0 +1,199 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.regex.Pattern;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ Decodes persons from JSON as it streams in, filling an ImmutablePerson.Builder field by field
+ rather than parsing into a tree first:
+
+     {"ssn": "111-22-3333", "id": "7", "firstName": "Fred", "lastName": "Flintstone", "age": 40}
+
+ ssn and id may be missing or null. Other fields are skipped unread.
+
+ SSN and ID are validated the moment their field is read. Then, just like the two-phase flow of
+ RawPerson.toPerson(), the Person is validated whether they passed or not, and all the violations
+ are accumulated. Each violation is located with a JSON path: $.ssn for the SSN's own rules and the
+ adults-require-SSN rule, $.age for a non-integer age, and $ for rules on the whole person (e.g. on
+ name()). Elements of decodeArray() get paths like $[3].ssn.
+
+ Input that isn't JSON at all fails with an IOException; see JsonReader.
+ */
+public final class PersonJsonDecoder {
+    private static final Pattern integer = Pattern.compile("-?\\d{1,9}");
+
+    private PersonJsonDecoder() {}
+
+    /*
+     One person, the whole document.
+     */
+    public static Validation<Seq<Violation>, Person> decode(final Reader json) throws IOException {
+        final JsonReader reader = new JsonReader(json);
+        final Validation<Seq<Violation>, Person> person = person(reader, -1);
+        reader.peek(); // refuses anything after it
+        return person;
+    }
+
+    /*
+     A document holding an array of persons, decoded one at a time, so the array can be any length.
+     Sends each valid person to valid, and the violations of each invalid one, along with its index,
+     to invalid. Returns the number of elements.
+     */
+    public static long decodeArray(final Reader json,
+                                   final Consumer<? super Person> valid,
+                                   final ObjLongConsumer<? super Seq<Violation>> invalid) throws IOException {
+        final JsonReader reader = new JsonReader(json);
+        reader.beginArray();
+        long index = 0;
+        for (; reader.hasNext(); index++) {
+            final Validation<Seq<Violation>, Person> person = person(reader, index);
+            if (person.isValid()) {
+                valid.accept(person.get());
+            } else {
+                invalid.accept(person.getError(), index);
+            }
+        }
+        reader.endArray();
+        reader.peek();
+        return index;
+    }
+
+    // the next value as a person; index is its position in the array, or -1 if it's the document
+    private static Validation<Seq<Violation>, Person> person(final JsonReader reader, final long index) throws IOException {
+        if (JsonReader.Token.BEGIN_OBJECT != reader.peek()) {
+            final Violation violation = type(reader, "person", "an object").at(path(index, null));
+            reader.skipValue();
+            return Validation.invalid(List.of(violation));
+        }
+        final ImmutablePerson.Builder builder = ImmutablePerson.builder();
+        final ArrayList<Violation> violations = new ArrayList<>(0);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String field = reader.nextName();
+            switch (field) {
+                case "ssn": {
+                    final String ssn = optionalString(reader, index, field, violations);
+                    if (null != ssn) {
+                        final Validation<Seq<Violation>, SSN> ssnv = SSN.buildViolations(ssn);
+                        if (ssnv.isValid()) {
+                            builder.setValueSsn(ssnv.get());
+                        } else {
+                            add(violations, ssnv.getError(), path(index, field));
+                        }
+                    }
+                    break;
+                }
+                case "id": {
+                    final String id = optionalString(reader, index, field, violations);
+                    if (null != id) {
+                        final Validation<Seq<Violation>, ID> idv = ID.buildViolations(id);
+                        if (idv.isValid()) {
+                            builder.setValueId(idv.get());
+                        } else {
+                            add(violations, idv.getError(), path(index, field));
+                        }
+                    }
+                    break;
+                }
+                case "firstName":
+                case "lastName": {
+                    if (JsonReader.Token.STRING == reader.peek()) {
+                        final String name = reader.nextString();
+                        if ("firstName".equals(field)) {
+                            builder.firstName(name);
+                        } else {
+                            builder.lastName(name);
+                        }
+                    } else {
+                        mistyped(reader, index, field, "a string", violations);
+                    }
+                    break;
+                }
+                case "age": {
+                    final String age = JsonReader.Token.NUMBER == reader.peek() ? reader.nextNumber() : null;
+                    if (null != age && integer.matcher(age).matches()) {
+                        builder.age(Integer.parseInt(age));
+                    } else if (null != age) {
+                        violations.add(Violation.of(RuleId.TYPE, field, "the number " + age, "an integer").at(path(index, field)));
+                    } else {
+                        mistyped(reader, index, field, "an integer", violations);
+                    }
+                    break;
+                }
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        final Validation<Seq<Violation>, Person> person = Person.buildViolations(builder);
+        if (person.isInvalid()) {
+            for (final Violation violation : person.getError()) {
+                violations.add(violation.at(path(index, field(violation.parameterName()))));
+            }
+        }
+        return violations.isEmpty() ? person : Validation.invalid(List.ofAll(violations));
+    }
+
+    // a string, or null if it's null (after adding a violation if it's anything else)
+    private static String optionalString(final JsonReader reader, final long index, final String field,
+                                         final ArrayList<Violation> violations) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+                return reader.nextString();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                mistyped(reader, index, field, "a string", violations);
+                return null;
+        }
+    }
+
+    private static void mistyped(final JsonReader reader, final long index, final String field, final String expected,
+                                 final ArrayList<Violation> violations) throws IOException {
+        violations.add(type(reader, field, expected).at(path(index, field)));
+        reader.skipValue();
+    }
+
+    private static Violation type(final JsonReader reader, final String parameterName, final String expected) throws IOException {
+        final String actual;
+        switch (reader.peek()) {
+            case BEGIN_OBJECT: actual = "an object"; break;
+            case BEGIN_ARRAY: actual = "an array"; break;
+            case STRING: actual = "a string"; break;
+            case NUMBER: actual = "a number"; break;
+            case TRUE: case FALSE: actual = "a boolean"; break;
+            default: actual = "null"; break;
+        }
+        return Violation.of(RuleId.TYPE, parameterName, actual, expected);
+    }
+
+    private static void add(final ArrayList<Violation> violations, final Seq<Violation> failed, final String path) {
+        for (final Violation violation : failed) {
+            violations.add(violation.at(path));
+        }
+    }
+
+    // the JSON field a Person rule's parameter refers to, or null if it's about the whole person
+    private static String field(final String parameterName) {
+        if ("ssn".equalsIgnoreCase(parameterName)) {
+            return "ssn";
+        }
+        if ("id".equalsIgnoreCase(parameterName)) {
+            return "id";
+        }
+        return "age".equals(parameterName) ? "age" : null;
+    }
+
+    private static String path(final long index, final String field) {
+        final String element = index < 0 ? "$" : "$[" + index + "]";
+        return null == field ? element : element + "." + field;
+    }
+}
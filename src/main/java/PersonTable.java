@@ -0,0 +1,369 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+/*
+ Validated Person data stored column by column in direct (off-heap) buffers, instead of as
+ ImmutablePersons: the age in an int column, the SSN packed into an int column (as in PackedSSN),
+ and the id, first and last names UTF-8 encoded in byte arenas. A row costs 32 bytes plus its
+ characters, and the GC sees a handful of buffers however many rows there are.
+
+ Rows only get in as a Person (so they've already passed Person's rules) or as a RawPerson that
+ passes them. Rows are append-only.
+
+ Reads hand out Rows: flyweight views implementing Person's accessors. A Row is a cursor, not a
+ value: reposition one with row(index, reuse), or scan with forEach(), and nothing is allocated per
+ row. age(), hasSSN() and packedSSN() never allocate; the String and Option accessors necessarily
+ do. Being a cursor, a Row is equal only to itself: row.compact() (or ImmutablePerson.copyOf(row))
+ makes a Person of the row it's at, to keep, compare or put in a set.
+
+ Not thread-safe for writing. Concurrent readers are fine once writing is done.
+ */
+public final class PersonTable {
+    private static final int NONE = -1;
+    private static final int MAXIMUM_BUFFER = Integer.MAX_VALUE - 8;
+    private static final int MAXIMUM_ROWS = MAXIMUM_BUFFER / 4;
+
+    private int size;
+    private int capacity;
+    private ByteBuffer ages;
+    private ByteBuffer ssns;
+    private final StringColumn ids;
+    private final StringColumn firstNames;
+    private final StringColumn lastNames;
+
+    // open addressing from packed SSN to the first row holding it; slots hold row + 1, 0 is empty
+    private int[] ssnIndex;
+    private int indexed;
+
+    public PersonTable(final int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_ROWS) {
+            throw new IllegalArgumentException(
+                    String.format("initialCapacity (%d) must be between 1 and %d.", initialCapacity, MAXIMUM_ROWS));
+        }
+        capacity = initialCapacity;
+        ages = ByteBuffer.allocateDirect(4 * capacity);
+        ssns = ByteBuffer.allocateDirect(4 * capacity);
+        ids = new StringColumn(capacity, 8);
+        firstNames = new StringColumn(capacity, 8);
+        lastNames = new StringColumn(capacity, 8);
+        ssnIndex = new int[16];
+    }
+
+    public int size() {return size;}
+
+    /*
+     Appends person, returning its row.
+     */
+    public int add(final Person person) {
+        if (size == capacity) {
+            grow();
+        }
+        final int row = size;
+        ages.putInt(4 * row, person.age());
+        final int packed = person.ssn().isDefined() ? person.ssn().get().packed() : NONE;
+        ssns.putInt(4 * row, packed);
+        ids.set(row, person.id().isDefined() ? person.id().get().id() : null);
+        firstNames.set(row, person.firstName());
+        lastNames.set(row, person.lastName());
+        size++;
+        if (NONE != packed) {
+            index(packed, row);
+        }
+        return row;
+    }
+
+    /*
+     Appends a row whose fields were validated in place by MappedLoader: the id, first and last names
+     are the bytes [from, to) of utf8, copied without ever becoming Strings. idFrom < 0 means no id,
+     packedSSN < 0 no SSN.
+     */
+    int add(final int age, final int packedSSN, final ByteBuffer utf8,
+            final int idFrom, final int idTo,
+            final int firstFrom, final int firstTo,
+            final int lastFrom, final int lastTo) {
+        if (size == capacity) {
+            grow();
+        }
+        final int row = size;
+        ages.putInt(4 * row, age);
+        ssns.putInt(4 * row, packedSSN);
+        if (idFrom < 0) {
+            ids.set(row, null);
+        } else {
+            ids.set(row, utf8, idFrom, idTo);
+        }
+        firstNames.set(row, utf8, firstFrom, firstTo);
+        lastNames.set(row, utf8, lastFrom, lastTo);
+        size++;
+        if (NONE != packedSSN) {
+            index(packedSSN, row);
+        }
+        return row;
+    }
+
+    /*
+     Appends raw if it passes validation, returning its row; returns the violations otherwise.
+     */
+    public Validation<Seq<Violation>, Integer> add(final RawPerson raw) {
+        return raw.toPerson().map(this::add);
+    }
+
+    /*
+     Empties the table but keeps its buffers, e.g. to reload it.
+     */
+    public void clear() {
+        size = 0;
+        ids.clear();
+        firstNames.clear();
+        lastNames.clear();
+        Arrays.fill(ssnIndex, 0);
+        indexed = 0;
+    }
+
+    public Row row(final int row) {
+        return row(row, new Row());
+    }
+
+    // repositions reuse (which must be one of this table's Rows) at row
+    public Row row(final int row, final Row reuse) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(String.format("row %d of %d.", row, size));
+        }
+        reuse.row = row;
+        return reuse;
+    }
+
+    /*
+     Calls action on every row in order, with a single Row repositioned each time. The Row must not
+     be kept beyond the call.
+     */
+    public void forEach(final Consumer<? super Row> action) {
+        final Row cursor = new Row();
+        for (int row = 0; row < size; row++) {
+            cursor.row = row;
+            action.accept(cursor);
+        }
+    }
+
+    /*
+     The first row whose SSN equals ssn, or -1 if there is none.
+     */
+    public int rowOf(final SSN ssn) {
+        final int packed = ssn.packed();
+        final int mask = ssnIndex.length - 1;
+        for (int slot = mix(packed) & mask; 0 != ssnIndex[slot]; slot = (slot + 1) & mask) {
+            final int row = ssnIndex[slot] - 1;
+            if (ssns.getInt(4 * row) == packed) {
+                return row;
+            }
+        }
+        return NONE;
+    }
+
+    // bytes held in direct buffers
+    public long offHeapBytes() {
+        return ages.capacity() + ssns.capacity() + ids.bytes() + firstNames.bytes() + lastNames.bytes();
+    }
+
+    private void grow() {
+        if (capacity == MAXIMUM_ROWS) {
+            throw new IllegalStateException(String.format("PersonTable is full at %d rows.", MAXIMUM_ROWS));
+        }
+        capacity = (int) Math.min(MAXIMUM_ROWS, 2L * capacity);
+        ages = copy(ages, 4 * capacity);
+        ssns = copy(ssns, 4 * capacity);
+        ids.grow(capacity);
+        firstNames.grow(capacity);
+        lastNames.grow(capacity);
+    }
+
+    private void index(final int packed, final int row) {
+        if (2 * (indexed + 1) > ssnIndex.length) {
+            final int[] old = ssnIndex;
+            ssnIndex = new int[2 * old.length];
+            indexed = 0;
+            for (final int held : old) {
+                if (0 != held) {
+                    insert(ssns.getInt(4 * (held - 1)), held - 1);
+                }
+            }
+        }
+        insert(packed, row);
+    }
+
+    private void insert(final int packed, final int row) {
+        final int mask = ssnIndex.length - 1;
+        int slot = mix(packed) & mask;
+        while (0 != ssnIndex[slot]) {
+            if (ssns.getInt(4 * (ssnIndex[slot] - 1)) == packed) {
+                return; // keep the first row
+            }
+            slot = (slot + 1) & mask;
+        }
+        ssnIndex[slot] = row + 1;
+        indexed++;
+    }
+
+    private static int mix(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static ByteBuffer copy(final ByteBuffer from, final int capacity) {
+        final ByteBuffer to = ByteBuffer.allocateDirect(capacity);
+        final ByteBuffer source = from.duplicate();
+        source.clear();
+        to.put(source);
+        to.clear();
+        return to;
+    }
+
+    /*
+     Variable-length UTF-8 strings: per row, an offset into the arena and a length (-1 for absent).
+     */
+    private static final class StringColumn {
+        private ByteBuffer offsets;
+        private ByteBuffer lengths;
+        private ByteBuffer arena;
+        private int used;
+
+        StringColumn(final int rows, final int bytesPerRow) {
+            offsets = ByteBuffer.allocateDirect(4 * rows);
+            lengths = ByteBuffer.allocateDirect(4 * rows);
+            arena = ByteBuffer.allocateDirect((int) Math.min(MAXIMUM_BUFFER, (long) rows * bytesPerRow));
+        }
+
+        void set(final int row, final String value) {
+            if (null == value) {
+                offsets.putInt(4 * row, used);
+                lengths.putInt(4 * row, NONE);
+                return;
+            }
+            final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            reserve(encoded.length);
+            final ByteBuffer target = arena.duplicate();
+            target.position(used);
+            target.put(encoded);
+            append(row, encoded.length);
+        }
+
+        // copies the bytes [from, to) of utf8 one at a time: fields are short and this allocates nothing
+        void set(final int row, final ByteBuffer utf8, final int from, final int to) {
+            reserve(to - from);
+            for (int i = from; i < to; i++) {
+                arena.put(used + i - from, utf8.get(i));
+            }
+            append(row, to - from);
+        }
+
+        private void reserve(final int length) {
+            if (arena.capacity() - used < length) {
+                final long needed = (long) used + length;
+                if (needed > MAXIMUM_BUFFER) {
+                    throw new IllegalStateException(String.format("%d bytes of strings exceed a column's 2GB arena.", needed));
+                }
+                arena = copy(arena, (int) Math.min(MAXIMUM_BUFFER, Math.max(2L * arena.capacity(), needed)));
+            }
+        }
+
+        private void append(final int row, final int length) {
+            offsets.putInt(4 * row, used);
+            lengths.putInt(4 * row, length);
+            used += length;
+        }
+
+        void clear() {
+            used = 0;
+        }
+
+        boolean isPresent(final int row) {
+            return NONE != lengths.getInt(4 * row);
+        }
+
+        String get(final int row) {
+            final int length = lengths.getInt(4 * row);
+            if (NONE == length) {
+                return null;
+            }
+            final byte[] bytes = new byte[length];
+            final ByteBuffer source = arena.duplicate();
+            source.position(offsets.getInt(4 * row));
+            source.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void grow(final int rows) {
+            offsets = copy(offsets, 4 * rows);
+            lengths = copy(lengths, 4 * rows);
+        }
+
+        long bytes() {
+            return offsets.capacity() + lengths.capacity() + arena.capacity();
+        }
+    }
+
+    /*
+     A flyweight view of one row. Its rows were validated on the way in, so it's never checked again.
+     */
+    public final class Row extends Person {
+        private int row;
+
+        private Row() {}
+
+        public int row() {return row;}
+
+        @Override
+        public Option<ID> id() {
+            return ids.isPresent(row) ? Option.some(Checks.trusted(() -> ImmutableID.of(ids.get(row)))) : Option.none();
+        }
+
+        @Override
+        public String firstName() {return firstNames.get(row);}
+
+        @Override
+        public String lastName() {return lastNames.get(row);}
+
+        @Override
+        public int age() {return ages.getInt(4 * row);}
+
+        @Override
+        public Option<SSN> ssn() {
+            return hasSSN() ? Option.some(PackedSSN.trusted(packedSSN())) : Option.none();
+        }
+
+        public boolean hasSSN() {return NONE != packedSSN();}
+
+        // the SSN as PackedSSN holds it, or -1 if there is none
+        public int packedSSN() {return ssns.getInt(4 * row);}
+
+        public boolean hasId() {return ids.isPresent(row);}
+
+        // identity: a value equality would change as the Row is repositioned
+        @Override
+        public boolean equals(final Object another) {
+            return this == another;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Row %d: Person{id=%s, firstName=%s, lastName=%s, age=%d, ssn=%s}",
+                                 row, id(), firstName(), lastName(), age(), ssn());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PersonTable(rows=%d, capacity=%d, offHeapBytes=%d)", size, capacity, offHeapBytes());
+    }
+}
@@ -0,0 +1,164 @@
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+/*
+ A Person builder that validates each attribute the moment it's set, for intake where the fields
+ arrive one at a time (a form, a stream) and the client wants to hear about a bad field right away:
+
+     final ProgressivePersonBuilder person = new ProgressivePersonBuilder().age(20);
+     person.ssn("111-2x-3333").violations("ssn"); // the SSN's format, and adults-require-SSN
+
+ Each rule runs as soon as everything it needs is set, and its result is kept until one of those
+ attributes is set again: SSN's and ID's own rules on their own attribute, the age range on age, the
+ name rules once both names are set, and adults-require-SSN once age and ssn are. As in RawPerson,
+ ssn and id are Strings and null means absent. An ssn never set is taken to be absent by build(),
+ and only then does adults-require-SSN run without it.
+
+ All of Person's rules have run by the time build() is called, so build() only checks that firstName,
+ lastName and age were set, and assembles the Person without validating it again. Its violations are
+ the ones RawPerson.toPerson() would report for the same fields, in the same order. Violations are
+ always accumulated.
+
+ The limits are those of the RuleSet given, or RuleSet.DEFAULTS.
+
+ Not thread-safe.
+ */
+public final class ProgressivePersonBuilder {
+    private final RuleSet rules;
+    private final ImmutablePerson.Builder builder = ImmutablePerson.builder();
+
+    private boolean ssnSet;
+    private boolean hasSSN;
+    private String firstName;
+    private String lastName;
+    private boolean ageSet;
+    private int age;
+
+    // each rule's latest verdict; empty until it has run
+    private Seq<Violation> ssnViolations = List.empty();
+    private Seq<Violation> idViolations = List.empty();
+    private Seq<Violation> nameViolations = List.empty();
+    private Seq<Violation> adultViolations = List.empty();
+    private Seq<Violation> ageViolations = List.empty();
+
+    public ProgressivePersonBuilder() {
+        this(RuleSet.DEFAULTS);
+    }
+
+    public ProgressivePersonBuilder(final RuleSet rules) {
+        this.rules = rules;
+    }
+
+    public ProgressivePersonBuilder ssn(final String ssn) {
+        final Validation<Seq<Violation>, SSN> ssnv = null == ssn ? null : Checks.under(rules, () -> SSN.buildViolations(ssn));
+        ssnSet = true;
+        hasSSN = null != ssnv && ssnv.isValid();
+        builder.ssn(hasSSN ? Option.some(ssnv.get()) : Option.none());
+        ssnViolations = null == ssnv || ssnv.isValid() ? List.empty() : ssnv.getError();
+        adultsRequireSSN();
+        return this;
+    }
+
+    public ProgressivePersonBuilder id(final String id) {
+        final Validation<Seq<Violation>, ID> idv = null == id ? null : Checks.under(rules, () -> ID.buildViolations(id));
+        builder.id(null != idv && idv.isValid() ? Option.some(idv.get()) : Option.none());
+        idViolations = null == idv || idv.isValid() ? List.empty() : idv.getError();
+        return this;
+    }
+
+    public ProgressivePersonBuilder firstName(final String firstName) {
+        this.firstName = firstName;
+        builder.firstName(firstName);
+        name();
+        return this;
+    }
+
+    public ProgressivePersonBuilder lastName(final String lastName) {
+        this.lastName = lastName;
+        builder.lastName(lastName);
+        name();
+        return this;
+    }
+
+    public ProgressivePersonBuilder age(final int age) {
+        this.age = age;
+        ageSet = true;
+        builder.age(age);
+        ageViolations = verdict(RuleId.RANGE, "age", Rules.rangeViolation(age, "age", Age.MINIMUM, Age.MAXIMUM));
+        adultsRequireSSN();
+        return this;
+    }
+
+    /*
+     The violations of the rules run so far, in the order build() would report them.
+     */
+    public Seq<Violation> violations() {
+        return ssnViolations.appendAll(idViolations).appendAll(nameViolations).appendAll(adultViolations).appendAll(ageViolations);
+    }
+
+    /*
+     The violations so far of one attribute: "ssn" (including adults-require-SSN), "id", "name" (the
+     rules on both names) or "age".
+     */
+    public Seq<Violation> violations(final String attribute) {
+        switch (attribute) {
+            case "ssn": return ssnViolations.appendAll(adultViolations);
+            case "id": return idViolations;
+            case "name": return nameViolations;
+            case "age": return ageViolations;
+            default:
+                throw new IllegalArgumentException(String.format("Person has no attribute '%s'.", attribute));
+        }
+    }
+
+    // the required attributes not set yet
+    public Seq<String> missing() {
+        Seq<String> missing = List.empty();
+        if (null == firstName) {
+            missing = missing.append("firstName");
+        }
+        if (null == lastName) {
+            missing = missing.append("lastName");
+        }
+        return ageSet ? missing : missing.append("age");
+    }
+
+    public Validation<Seq<Violation>, Person> build() {
+        final Seq<Violation> adults = ssnSet || !ageSet ? adultViolations : adultsRequireSSNViolation();
+        final Seq<Violation> violations =
+                ssnViolations.appendAll(idViolations).appendAll(nameViolations).appendAll(adults).appendAll(ageViolations);
+        if (!missing().isEmpty()) {
+            // the builder's own REQUIRED_ATTRIBUTES violation
+            return Validation.invalid(violations.appendAll(Person.buildViolations(builder).getError()));
+        }
+        return violations.isEmpty() ?
+               Validation.valid(Checks.trusted(builder::build)) :
+               Validation.invalid(violations);
+    }
+
+    private void name() {
+        if (null != firstName && null != lastName) {
+            final String name = firstName + " " + lastName;
+            nameViolations = verdict(RuleId.NOT_BLANK, "name", Rules.notBlankViolation(name, "name"))
+                    .appendAll(verdict(RuleId.MAXIMUM_LENGTH, "name",
+                                       Rules.maximumLengthViolation(name, "name", rules.maximumNameLength())));
+        }
+    }
+
+    private void adultsRequireSSN() {
+        if (ssnSet && ageSet) {
+            adultViolations = adultsRequireSSNViolation();
+        }
+    }
+
+    private Seq<Violation> adultsRequireSSNViolation() {
+        return verdict(RuleId.ADULTS_REQUIRE_SSN, "ssn", Rules.adultsRequireSSNViolation(hasSSN, "ssn", age, rules.ssnRequiredAboveAge()));
+    }
+
+    private static Seq<Violation> verdict(final RuleId rule, final String parameterName, final Violation violation) {
+        Metrics.record(rule, parameterName, null == violation);
+        return null == violation ? List.empty() : List.of(violation);
+    }
+}
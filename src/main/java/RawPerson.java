@@ -0,0 +1,70 @@
+import java.util.Objects;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+/*
+ The raw fields of a person, as they arrive from a file or a request, before any validation.
+ A null ssn or id means the field is absent; names must be present (possibly blank).
+ */
+public final class RawPerson {
+    private final String ssn;
+    private final String id;
+    private final String firstName;
+    private final String lastName;
+    private final int age;
+
+    private RawPerson(final String ssn, final String id, final String firstName, final String lastName, final int age) {
+        this.ssn = ssn;
+        this.id = id;
+        this.firstName = Objects.requireNonNull(firstName, "firstName");
+        this.lastName = Objects.requireNonNull(lastName, "lastName");
+        this.age = age;
+    }
+
+    public static RawPerson of(final String ssn, final String id, final String firstName, final String lastName, final int age) {
+        return new RawPerson(ssn, id, firstName, lastName, age);
+    }
+
+    public String ssn() {return ssn;}
+    public String id() {return id;}
+    public String firstName() {return firstName;}
+    public String lastName() {return lastName;}
+    public int age() {return age;}
+
+    /*
+     Two-phase construction: build the primitives, then the entity, then combine all the violations.
+     Like the constructPerson() flow in the tests, primitive failures don't stop entity validation.
+     */
+    public Validation<Seq<Violation>, Person> toPerson() {
+        return toPerson(ssnValidation(), idValidation());
+    }
+
+    Validation<Seq<Violation>, Option<SSN>> ssnValidation() {
+        return null == ssn ?
+               Validation.valid(Option.none()) :
+               SSN.buildViolations(ssn).map(Option::some);
+    }
+
+    Validation<Seq<Violation>, Option<ID>> idValidation() {
+        return null == id ?
+               Validation.valid(Option.none()) :
+               ID.buildViolations(id).map(Option::some);
+    }
+
+    // the second phase, given the first
+    Validation<Seq<Violation>, Person> toPerson(final Validation<Seq<Violation>, Option<SSN>> ssnv,
+                                                final Validation<Seq<Violation>, Option<ID>> idv) {
+        final Validation<Seq<Violation>, Person> pv = Person.buildViolations(
+                ssnv.getOrElse(Option.none()), idv.getOrElse(Option.none()), firstName, lastName, age);
+
+        return Validation.combine(ssnv, idv, pv).ap((_ssn, _id, p) -> p).mapError(Rules::combine);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RawPerson(ssn=%s, id=%s, firstName=%s, lastName=%s, age=%d)",
+                             ssn, id, firstName, lastName, age);
+    }
+}
@@ -0,0 +1,249 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import io.vavr.collection.Seq;
+
+/*
+ What a batch run rejected, and why, in aggregate: counts per rule, per rule and parameter, and per
+ combination of rules failed together, each with a few sample rows. For runs where nobody will read
+ millions of rendered messages:
+
+     final RejectionReport<RawPerson> report = new RejectionReport<>(5);
+     BulkValidator.onCommonPool().validatePersons(rows, report);
+     report.count(RuleId.ADULTS_REQUIRE_SSN);
+     report.samples(EnumSet.of(RuleId.MATCHES, RuleId.ADULTS_REQUIRE_SSN));
+
+ Only each Violation's rule and parameter name are looked at, so no message is ever rendered. A row's
+ failed rules are recorded as a bitset: bit i for the RuleId with ordinal i, in one long.
+
+ Memory doesn't grow with the number of rows. The counters are bounded by the number of rules and
+ parameters, which the code fixes, and the combinations kept apart are capped at maximumCombinations
+ (rows with any other combination are only counted in otherCombinations()). Each rule and each
+ combination keeps a reservoir of at most samples rows: every row with it has the same chance of
+ being among them, however many there are (Vitter's algorithm R).
+
+ Not thread-safe: BulkValidator records every row on the calling thread.
+ */
+public final class RejectionReport<I> {
+    private static final RuleId[] rules = RuleId.values();
+
+    // what violations without a parameter (e.g. REQUIRED_ATTRIBUTES) are counted under
+    static final String NO_PARAMETER = "(none)";
+
+    static {
+        if (rules.length > Long.SIZE) {
+            throw new IllegalStateException(String.format("%d RuleIds don't fit a long bitset.", rules.length));
+        }
+    }
+
+    private final int samples;
+    private final int maximumCombinations;
+    private final SplittableRandom random;
+
+    private long rows;
+    private long rejected;
+    private final long[] byRule = new long[rules.length];
+    private final Map<String, long[]> byParameter = new HashMap<>(); // parameter name -> count by rule ordinal
+    private final Reservoir<I>[] ruleSamples;
+    private final Map<Long, Reservoir<I>> byCombination = new HashMap<>();
+    private long otherCombinations;
+
+    public RejectionReport(final int samples) {
+        this(samples, 256, new SplittableRandom());
+    }
+
+    // a seeded random gives the same samples every run
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RejectionReport(final int samples, final int maximumCombinations, final SplittableRandom random) {
+        if (samples < 0 || maximumCombinations < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "samples (%d) and maximumCombinations (%d) must not be negative.", samples, maximumCombinations));
+        }
+        this.samples = samples;
+        this.maximumCombinations = maximumCombinations;
+        this.random = random;
+        this.ruleSamples = new Reservoir[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            ruleSamples[i] = new Reservoir<>(samples);
+        }
+    }
+
+    public void accepted() {
+        rows++;
+    }
+
+    public void rejected(final I input, final long row, final Seq<? extends Violation> violations) {
+        rows++;
+        rejected++;
+        long failed = 0;
+        for (final Violation violation : violations) {
+            final int rule = violation.rule().ordinal();
+            failed |= 1L << rule;
+            byParameter.computeIfAbsent(parameter(violation.parameterName()), parameter -> new long[rules.length])[rule]++;
+        }
+        for (long remaining = failed; 0 != remaining; remaining &= remaining - 1) {
+            final int rule = Long.numberOfTrailingZeros(remaining);
+            byRule[rule]++;
+            ruleSamples[rule].offer(input, row, random);
+        }
+        Reservoir<I> combination = byCombination.get(failed);
+        if (null == combination && byCombination.size() < maximumCombinations) {
+            combination = new Reservoir<>(samples);
+            byCombination.put(failed, combination);
+        }
+        if (null == combination) {
+            otherCombinations++;
+        } else {
+            combination.offer(input, row, random);
+        }
+    }
+
+    public long rows() {return rows;}
+    public long rejected() {return rejected;}
+
+    // rows failing rule
+    public long count(final RuleId rule) {
+        return byRule[rule.ordinal()];
+    }
+
+    // violations of rule on parameterName, which may be null
+    public long count(final RuleId rule, final String parameterName) {
+        final long[] counts = byParameter.get(parameter(parameterName));
+        return null == counts ? 0 : counts[rule.ordinal()];
+    }
+
+    // rows failing exactly these rules
+    public long count(final Set<RuleId> combination) {
+        final Reservoir<I> reservoir = byCombination.get(bits(combination));
+        return null == reservoir ? 0 : reservoir.seen;
+    }
+
+    // rows whose combination wasn't kept apart, for being past maximumCombinations
+    public long otherCombinations() {
+        return otherCombinations;
+    }
+
+    // each combination kept apart, with its count, most frequent first
+    public Map<Set<RuleId>, Long> combinations() {
+        final List<Map.Entry<Long, Reservoir<I>>> entries = new ArrayList<>(byCombination.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().seen, a.getValue().seen));
+        final Map<Set<RuleId>, Long> combinations = new LinkedHashMap<>();
+        for (final Map.Entry<Long, Reservoir<I>> entry : entries) {
+            combinations.put(ruleIds(entry.getKey()), entry.getValue().seen);
+        }
+        return Collections.unmodifiableMap(combinations);
+    }
+
+    public List<Sample<I>> samples(final RuleId rule) {
+        return ruleSamples[rule.ordinal()].samples();
+    }
+
+    public List<Sample<I>> samples(final Set<RuleId> combination) {
+        final Reservoir<I> reservoir = byCombination.get(bits(combination));
+        return null == reservoir ? Collections.emptyList() : reservoir.samples();
+    }
+
+    /*
+     A summary table: rows and rejections, then counts per rule and parameter, then per combination.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder(String.format("%d rows, %d rejected%n", rows, rejected));
+        final Map<String, long[]> parameters = new TreeMap<>(byParameter);
+        for (final RuleId rule : rules) {
+            if (0 != byRule[rule.ordinal()]) {
+                report.append(String.format("%-20s %10d rows", rule, byRule[rule.ordinal()]));
+                for (final Map.Entry<String, long[]> parameter : parameters.entrySet()) {
+                    if (0 != parameter.getValue()[rule.ordinal()]) {
+                        report.append(String.format(", %s %d", parameter.getKey(), parameter.getValue()[rule.ordinal()]));
+                    }
+                }
+                report.append(String.format("%n"));
+            }
+        }
+        for (final Map.Entry<Set<RuleId>, Long> combination : combinations().entrySet()) {
+            report.append(String.format("%-40s %10d rows%n", combination.getKey(), combination.getValue()));
+        }
+        if (0 != otherCombinations) {
+            report.append(String.format("%-40s %10d rows%n", "(other combinations)", otherCombinations));
+        }
+        return report.toString();
+    }
+
+    private static String parameter(final String parameterName) {
+        return null == parameterName ? NO_PARAMETER : parameterName;
+    }
+
+    private static long bits(final Set<RuleId> combination) {
+        long bits = 0;
+        for (final RuleId rule : combination) {
+            bits |= 1L << rule.ordinal();
+        }
+        return bits;
+    }
+
+    private static Set<RuleId> ruleIds(final long bits) {
+        final EnumSet<RuleId> ruleIds = EnumSet.noneOf(RuleId.class);
+        for (long remaining = bits; 0 != remaining; remaining &= remaining - 1) {
+            ruleIds.add(rules[Long.numberOfTrailingZeros(remaining)]);
+        }
+        return ruleIds;
+    }
+
+    /*
+     A rejected input, and its zero-based row number.
+     */
+    public static final class Sample<I> {
+        private final long row;
+        private final I input;
+
+        Sample(final long row, final I input) {
+            this.row = row;
+            this.input = input;
+        }
+
+        public long row() {return row;}
+        public I input() {return input;}
+
+        @Override
+        public String toString() {
+            return String.format("row %d: %s", row, input);
+        }
+    }
+
+    private static final class Reservoir<I> {
+        private final Object[] kept;
+        long seen;
+
+        Reservoir(final int size) {
+            kept = new Object[size];
+        }
+
+        void offer(final I input, final long row, final SplittableRandom random) {
+            final long at = seen++ < kept.length ? seen - 1 : random.nextLong(seen);
+            if (at < kept.length) {
+                kept[(int) at] = new Sample<>(row, input);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Sample<I>> samples() {
+            final List<Sample<I>> samples = new ArrayList<>(kept.length);
+            for (final Object sample : kept) {
+                if (null != sample) {
+                    samples.add((Sample<I>) sample);
+                }
+            }
+            samples.sort((a, b) -> Long.compare(a.row, b.row));
+            return samples;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ Identifies a validation rule, and knows how to render a message for a Violation of it.
+
+ Rendering is deferred until somebody asks for the message, so a caller that only needs to know
+ whether (or which) rule failed never pays for String.format().
+ */
+public enum RuleId {
+
+    // arguments: none
+    NOT_BLANK {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s is blank: must not be blank.", parameterName);
+        }
+    },
+
+    // arguments: actual length, maximum length
+    MAXIMUM_LENGTH {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%d character %s is too long: exceeds maximum name length of %d characters.",
+                                 arguments[0], parameterName, arguments[1]);
+        }
+    },
+
+    // arguments: content (may be null), pattern
+    MATCHES {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            final String content = (String) arguments[0];
+            final String str = null == content ? "(null string)" : String.format("string '%s'",content);
+            return String.format("'%s' parameter containing %s doesn't match pattern '%s'.",
+                                 parameterName,str,arguments[1].toString());
+        }
+    },
+
+    // arguments: age, age above which an SSN is required
+    ADULTS_REQUIRE_SSN {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%d-year-old has no SSN (in '%s' parameter): violates SSN required if age > %d years.",
+                                 arguments[0], parameterName, arguments[1]);
+        }
+    },
+
+    // arguments: value, minimum, maximum (inclusive)
+    RANGE {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s value %s is out of range: must be between %s and %s.",
+                                 parameterName, arguments[0], arguments[1], arguments[2]);
+        }
+    },
+
+    // arguments: value, minimum (inclusive)
+    MINIMUM {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s value %s is too small: must be at least %s.", parameterName, arguments[0], arguments[1]);
+        }
+    },
+
+    // arguments: value, maximum (inclusive)
+    MAXIMUM {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s value %s is too large: must be at most %s.", parameterName, arguments[0], arguments[1]);
+        }
+    },
+
+    // arguments: value looked up
+    EXISTS {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s '%s' does not exist: must refer to an existing one.", parameterName, arguments[0]);
+        }
+    },
+
+    // arguments: value looked up
+    NOT_REGISTERED {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s '%s' is already registered: must be unique.", parameterName, arguments[0]);
+        }
+    },
+
+    // arguments: value, row it first appeared in
+    UNIQUE {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s '%s' is a duplicate: first appeared in row %d.", parameterName, arguments[0], arguments[1]);
+        }
+    },
+
+    // arguments: value, where else in the aggregate it's held (e.g. members[7])
+    DUPLICATE {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s '%s' is a duplicate: also held by %s.", parameterName, arguments[0], arguments[1]);
+        }
+    },
+
+    // arguments: what was found (e.g. "a string"), what was expected (e.g. "a number")
+    TYPE {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return String.format("%s is %s: expected %s.", parameterName, arguments[0], arguments[1]);
+        }
+    },
+
+    /*
+     The generated builder refused to build because required attributes weren't set.
+     arguments: the builder's own (already formatted) message
+     */
+    REQUIRED_ATTRIBUTES {
+        @Override
+        String render(final String parameterName, final Object[] arguments) {
+            return (String) arguments[0];
+        }
+    };
+
+    abstract String render(final String parameterName, final Object[] arguments);
+}
@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/*
+ One version of the configurable rule limits: the maximum name length, the age above which a person
+ needs an SSN, and optionally a pattern that narrows the SSN format (e.g. to one issuing area). The
+ validators for those limits are built once, here, so applying a RuleSet costs nothing per validation.
+
+ A RuleSet is immutable. Change the limits by loading a new version and publishing it to RuleSets.
+ Its rules are in force for everything validated under apply(), whose result names the version:
+
+     final RuleSet.Versioned<Validation<Seq<Violation>, Person>> person = rules.apply(raw::toPerson);
+
+ Outside of apply(), DEFAULTS is in force. Every validation path honors the RuleSet in force where it
+ runs: Person, SSN and PackedSSN construction, Person2's factories, MappedLoader's byte-level fast path
+ (and so PersonTable's byte rows). BulkValidator and AsyncPersonValidator carry the RuleSet in force
+ where they're called over to their executors' threads. The one exception is ProgressivePersonBuilder,
+ which is given its RuleSet when constructed, DEFAULTS if none.
+
+ A config file is in java.util.Properties format, UTF-8 encoded:
+
+     version=3
+     name.maximumLength=20
+     ssn.requiredAboveAge=17
+     ssn.pattern=9\\d{2}-\\d{2}-\\d{4}
+
+ version is required; the others default to DEFAULTS'.
+ */
+public final class RuleSet {
+
+    public static final RuleSet DEFAULTS = new RuleSet(0, Person.MAXIMUM_NAME_LENGTH, Rules.SSN_REQUIRED_ABOVE_AGE, null);
+
+    private final long version;
+    private final int maximumNameLength;
+    private final int ssnRequiredAboveAge;
+    private final Pattern ssnPattern;
+
+    private final Validator<SSN> ssn;
+    private final Validator<Person> person;
+    private final Validator<Person2> person2;
+
+    private RuleSet(final long version, final int maximumNameLength, final int ssnRequiredAboveAge, final Pattern ssnPattern) {
+        if (version < 0 || maximumNameLength < 1 || ssnRequiredAboveAge < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "version (%d) and ssnRequiredAboveAge (%d) must not be negative, and maximumNameLength (%d) must be positive.",
+                    version, ssnRequiredAboveAge, maximumNameLength));
+        }
+        this.version = version;
+        this.maximumNameLength = maximumNameLength;
+        this.ssnRequiredAboveAge = ssnRequiredAboveAge;
+        this.ssnPattern = ssnPattern;
+        this.ssn = SSN.validator(ssnPattern);
+        this.person = Person.validator(maximumNameLength, ssnRequiredAboveAge);
+        this.person2 = Person2.validator(maximumNameLength, ssnRequiredAboveAge);
+    }
+
+    /*
+     ssnPattern may be null, for just the ddd-dd-dddd format.
+     */
+    public static RuleSet of(final long version, final int maximumNameLength, final int ssnRequiredAboveAge,
+                             final String ssnPattern) {
+        return new RuleSet(version, maximumNameLength, ssnRequiredAboveAge,
+                           null == ssnPattern ? null : Pattern.compile(ssnPattern));
+    }
+
+    public static RuleSet load(final Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return of(number(properties, "version", null),
+                      integer(properties, "name.maximumLength", DEFAULTS.maximumNameLength),
+                      integer(properties, "ssn.requiredAboveAge", DEFAULTS.ssnRequiredAboveAge),
+                      properties.getProperty("ssn.pattern"));
+        } catch (final IllegalArgumentException e) {
+            // PatternSyntaxException included
+            throw new IOException(String.format("%s is not a valid rule set: %s", file, e.getMessage()), e);
+        }
+    }
+
+    private static long number(final Properties properties, final String key, final Long otherwise) {
+        final String value = properties.getProperty(key);
+        if (null == value) {
+            if (null == otherwise) {
+                throw new IllegalArgumentException(String.format("%s is missing.", key));
+            }
+            return otherwise;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("%s is '%s': expected an integer.", key, value));
+        }
+    }
+
+    private static int integer(final Properties properties, final String key, final int otherwise) {
+        final long value = number(properties, key, (long) otherwise);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                    "%s is %d: must be between %d and %d.", key, value, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        }
+        return (int) value;
+    }
+
+    public long version() {return version;}
+    public int maximumNameLength() {return maximumNameLength;}
+    public int ssnRequiredAboveAge() {return ssnRequiredAboveAge;}
+
+    // null if SSNs just have to be ddd-dd-dddd
+    public String ssnPattern() {
+        return null == ssnPattern ? null : ssnPattern.pattern();
+    }
+
+    Validator<SSN> ssn() {return ssn;}
+    Validator<Person> person() {return person;}
+    Validator<Person2> person2() {return person2;}
+
+    // no longer published: its validators let go of what they remember per thread
+    void retire() {
+        ssn.forget();
+        person.forget();
+        person2.forget();
+    }
+
+    /*
+     Runs validation (e.g. raw::toPerson) with these rules in force, construction nested in it
+     included, and tags its result with this version.
+     */
+    public <T> Versioned<T> apply(final Supplier<? extends T> validation) {
+        return new Versioned<>(version, Checks.under(this, validation));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RuleSet(version=%d, maximumNameLength=%d, ssnRequiredAboveAge=%d, ssnPattern=%s)",
+                             version, maximumNameLength, ssnRequiredAboveAge, ssnPattern());
+    }
+
+    /*
+     A result along with the version of the RuleSet that produced it.
+     */
+    public static final class Versioned<T> {
+        private final long version;
+        private final T value;
+
+        Versioned(final long version, final T value) {
+            this.version = version;
+            this.value = value;
+        }
+
+        public long version() {return version;}
+        public T value() {return value;}
+
+        @Override
+        public boolean equals(final Object another) {
+            return this == another || another instanceof Versioned &&
+                                      version == ((Versioned<?>) another).version &&
+                                      Objects.equals(value, ((Versioned<?>) another).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(version) + Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (rule set version %d)", value, version);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+
+/*
+ The RuleSet published for each tenant, swapped at runtime without a redeploy:
+
+     rules.reload("acme", Paths.get("rules/acme.properties")); // e.g. every minute, or on a file watch
+     ...
+     rules.get("acme").apply(raw::toPerson)
+
+ Publishing is copy-on-write: publish() makes a new immutable map holding the new RuleSet and swaps it
+ in with a compare-and-set. get() is a single read of the current map and a lookup in it, with no
+ locks and no writes, so readers never contend with each other or wait on a publisher, and a swap
+ under load stalls nothing. A validation gets its RuleSet once and keeps it, so it never mixes two
+ versions; the next get() sees the new one.
+
+ Versions only move forward: a RuleSet is published only if it's newer than the tenant's current one,
+ so reloading an unchanged file, or two racing reloads, can't roll a tenant back. A tenant nothing was
+ published for gets RuleSet.DEFAULTS.
+
+ The RuleSet a publish() replaces is retired, so its Validators don't keep a target per thread alive
+ (see Validator). One still in use, or published for another tenant too, only loses those shortcuts.
+ */
+public final class RuleSets {
+    private final AtomicReference<Map<String, RuleSet>> published = new AtomicReference<>(HashMap.empty());
+
+    public RuleSet get(final String tenant) {
+        return published.get().get(tenant).getOrElse(RuleSet.DEFAULTS);
+    }
+
+    // true if rules replaced the tenant's RuleSet, false if it wasn't newer
+    public boolean publish(final String tenant, final RuleSet rules) {
+        while (true) {
+            final Map<String, RuleSet> current = published.get();
+            final Option<RuleSet> previous = current.get(tenant);
+            if (previous.isDefined() && previous.get().version() >= rules.version()) {
+                return false;
+            }
+            if (published.compareAndSet(current, current.put(tenant, rules))) {
+                previous.forEach(RuleSet::retire);
+                return true;
+            }
+        }
+    }
+
+    public boolean reload(final String tenant, final Path file) throws IOException {
+        return publish(tenant, RuleSet.load(file));
+    }
+}
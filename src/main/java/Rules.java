@@ -0,0 +1,192 @@
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+/*
+ The typed counterparts of the rules in Validations. Failures are Violations rather than Strings,
+ so nothing gets formatted unless a caller asks for a message.
+
+ Each rule is defined once, as a *Violation() method returning the Violation or null if content
+ passes. The Validation-returning methods wrap those, and the no-argument (or configured) overloads
+ hand them to Validator declarations.
+
+ The numeric rules take primitives and hand Validator a Test on the whole target (e.g. intRange(Age::value, 0, 150)),
+ so a passing value is never boxed; only a Violation's arguments are.
+ */
+public class Rules {
+    static final int SSN_REQUIRED_ABOVE_AGE = 17;
+    public static Validation<Violation,String> notBlank(final String content, final String parameterName) {
+        return validation(RuleId.NOT_BLANK, parameterName, notBlankViolation(content, parameterName), content);
+    }
+
+    public static Validation<Violation,String> maximumLength(final String content, final String parameterName, final int max) {
+        return validation(RuleId.MAXIMUM_LENGTH, parameterName, maximumLengthViolation(content, parameterName, max), content);
+    }
+
+    public static Validation<Violation,String> matches(final String content, final String parameterName, final Pattern pattern) {
+        return validation(RuleId.MATCHES, parameterName, matchesViolation(content, parameterName, pattern), content);
+    }
+
+    /*
+     Same verdict and Violation as matches(content, parameterName, pattern) for the SSN pattern,
+     without the regex. pattern is only used to render the message.
+     */
+    public static Validation<Violation,String> ssnFormat(final String content, final String parameterName, final Pattern pattern) {
+        return validation(RuleId.MATCHES, parameterName, ssnFormatViolation(content, parameterName, pattern), content);
+    }
+
+    public static Validation<Violation,Option<SSN>> adultsRequireSSN(
+            final Option<SSN> ssno,
+            final String ssnParameterName,
+            final int age) {
+        return validation(RuleId.ADULTS_REQUIRE_SSN, ssnParameterName,
+                          adultsRequireSSNViolation(ssno.isDefined(), ssnParameterName, age), ssno);
+    }
+
+    public static Validator.AttributeRule<String> notBlank() {
+        return NOT_BLANK;
+    }
+
+    public static Validator.AttributeRule<String> maximumLength(final int max) {
+        return new Validator.AttributeRule<>(RuleId.MAXIMUM_LENGTH,
+                                             (content, parameterName) -> maximumLengthViolation(content, parameterName, max));
+    }
+
+    public static Validator.AttributeRule<String> matches(final Pattern pattern) {
+        return new Validator.AttributeRule<>(RuleId.MATCHES,
+                                             (content, parameterName) -> matchesViolation(content, parameterName, pattern));
+    }
+
+    public static Validator.AttributeRule<String> ssnFormat(final Pattern pattern) {
+        return new Validator.AttributeRule<>(RuleId.MATCHES,
+                                             (content, parameterName) -> ssnFormatViolation(content, parameterName, pattern));
+    }
+
+    public static <T> Validator.Test<T> intRange(final ToIntFunction<? super T> value, final int min, final int max) {
+        return (target, parameterName) -> rangeViolation(value.applyAsInt(target), parameterName, min, max);
+    }
+
+    public static <T> Validator.Test<T> longRange(final ToLongFunction<? super T> value, final long min, final long max) {
+        return (target, parameterName) -> rangeViolation(value.applyAsLong(target), parameterName, min, max);
+    }
+
+    public static <T> Validator.Test<T> doubleRange(final ToDoubleFunction<? super T> value, final double min, final double max) {
+        return (target, parameterName) -> rangeViolation(value.applyAsDouble(target), parameterName, min, max);
+    }
+
+    public static <T> Validator.Test<T> intMinimum(final ToIntFunction<? super T> value, final int min) {
+        return (target, parameterName) -> minimumViolation(value.applyAsInt(target), parameterName, min);
+    }
+
+    public static <T> Validator.Test<T> longMinimum(final ToLongFunction<? super T> value, final long min) {
+        return (target, parameterName) -> minimumViolation(value.applyAsLong(target), parameterName, min);
+    }
+
+    public static <T> Validator.Test<T> doubleMinimum(final ToDoubleFunction<? super T> value, final double min) {
+        return (target, parameterName) -> minimumViolation(value.applyAsDouble(target), parameterName, min);
+    }
+
+    public static <T> Validator.Test<T> intMaximum(final ToIntFunction<? super T> value, final int max) {
+        return (target, parameterName) -> maximumViolation(value.applyAsInt(target), parameterName, max);
+    }
+
+    public static <T> Validator.Test<T> longMaximum(final ToLongFunction<? super T> value, final long max) {
+        return (target, parameterName) -> maximumViolation(value.applyAsLong(target), parameterName, max);
+    }
+
+    public static <T> Validator.Test<T> doubleMaximum(final ToDoubleFunction<? super T> value, final double max) {
+        return (target, parameterName) -> maximumViolation(value.applyAsDouble(target), parameterName, max);
+    }
+
+    private static final Validator.AttributeRule<String> NOT_BLANK =
+            new Validator.AttributeRule<>(RuleId.NOT_BLANK, Rules::notBlankViolation);
+
+    static Violation notBlankViolation(final String content, final String parameterName) {
+        return StringUtils.isBlank(content) ? Violation.of(RuleId.NOT_BLANK, parameterName) : null;
+    }
+
+    static Violation maximumLengthViolation(final String content, final String parameterName, final int max) {
+        return null != content && content.length() > max ?
+               Violation.of(RuleId.MAXIMUM_LENGTH, parameterName, content.length(), max) :
+               null;
+    }
+
+    static Violation matchesViolation(final String content, final String parameterName, final Pattern pattern) {
+        return null != content && pattern.matcher(content).matches() ?
+               null :
+               Violation.of(RuleId.MATCHES, parameterName, content, pattern);
+    }
+
+    static Violation ssnFormatViolation(final String content, final String parameterName, final Pattern pattern) {
+        return SSNFormat.matches(content) ? null : Violation.of(RuleId.MATCHES, parameterName, content, pattern);
+    }
+
+    static Violation adultsRequireSSNViolation(final boolean hasSSN, final String ssnParameterName, final int age) {
+        return adultsRequireSSNViolation(hasSSN, ssnParameterName, age, SSN_REQUIRED_ABOVE_AGE);
+    }
+
+    static Violation adultsRequireSSNViolation(final boolean hasSSN, final String ssnParameterName, final int age,
+                                               final int requiredAboveAge) {
+        return age > requiredAboveAge && !hasSSN ?
+               Violation.of(RuleId.ADULTS_REQUIRE_SSN, ssnParameterName, age, requiredAboveAge) :
+               null;
+    }
+
+    static Violation rangeViolation(final int value, final String parameterName, final int min, final int max) {
+        return value >= min && value <= max ? null : Violation.of(RuleId.RANGE, parameterName, value, min, max);
+    }
+
+    static Violation rangeViolation(final long value, final String parameterName, final long min, final long max) {
+        return value >= min && value <= max ? null : Violation.of(RuleId.RANGE, parameterName, value, min, max);
+    }
+
+    // NaN is out of every range
+    static Violation rangeViolation(final double value, final String parameterName, final double min, final double max) {
+        return value >= min && value <= max ? null : Violation.of(RuleId.RANGE, parameterName, value, min, max);
+    }
+
+    static Violation minimumViolation(final int value, final String parameterName, final int min) {
+        return value >= min ? null : Violation.of(RuleId.MINIMUM, parameterName, value, min);
+    }
+
+    static Violation minimumViolation(final long value, final String parameterName, final long min) {
+        return value >= min ? null : Violation.of(RuleId.MINIMUM, parameterName, value, min);
+    }
+
+    static Violation minimumViolation(final double value, final String parameterName, final double min) {
+        return value >= min ? null : Violation.of(RuleId.MINIMUM, parameterName, value, min);
+    }
+
+    static Violation maximumViolation(final int value, final String parameterName, final int max) {
+        return value <= max ? null : Violation.of(RuleId.MAXIMUM, parameterName, value, max);
+    }
+
+    static Violation maximumViolation(final long value, final String parameterName, final long max) {
+        return value <= max ? null : Violation.of(RuleId.MAXIMUM, parameterName, value, max);
+    }
+
+    static Violation maximumViolation(final double value, final String parameterName, final double max) {
+        return value <= max ? null : Violation.of(RuleId.MAXIMUM, parameterName, value, max);
+    }
+
+    /*
+     Flattens the nested violations that Validation.combine() accumulates from Seq-valued validations.
+     */
+    public static Seq<Violation> combine(final Seq<? extends Seq<Violation>> violations) {
+        return violations.flatMap(Function.identity());
+    }
+
+    private static <T> Validation<Violation,T> validation(final RuleId rule, final String parameterName,
+                                                          final Violation violation, final T value) {
+        Metrics.record(rule, parameterName, null == violation);
+        return null == violation ? Validation.valid(value) : Validation.invalid(violation);
+    }
+}
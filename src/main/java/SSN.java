@@ -1,51 +1,149 @@
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import org.immutables.value.Value;
 
-import io.vavr.control.Either;
-import io.vavr.control.Try;
+import io.vavr.collection.Seq;
 import io.vavr.control.Validation;
 
 @Value.Immutable
-abstract class SSN {
-    private static final Pattern pattern = Pattern.compile("\\d{3}+-\\d{2}+-\\d{4}+");
+@Value.Style(clearBuilder = true)
+abstract class SSN implements Comparable<SSN> {
+    // SSNFormat does the matching; the pattern is kept for the error messages
+    static final Pattern pattern = Pattern.compile("\\d{3}+-\\d{2}+-\\d{4}+");
 
     @Value.Parameter
     abstract String ssn();
 
+    /*
+     The nine digits packed into an int, computed once at construction. Equality, hashing and ordering
+     all go through this, so a string-backed ImmutableSSN and a PackedSSN holding the same number are
+     equal. An ssn() that doesn't pack (only possible for an instance built trusted) packs to
+     SSNFormat.INVALID, and then its string decides instead.
+     */
+    @Value.Derived
+    int packed() {
+        return SSNFormat.pack(ssn());
+    }
+
+    @Override
+    public boolean equals(final Object another) {
+        if (this == another) {
+            return true;
+        }
+        if (!(another instanceof SSN)) {
+            return false;
+        }
+        final SSN ssn = (SSN) another;
+        return packed() == ssn.packed() && (SSNFormat.INVALID != packed() || ssn().equals(ssn.ssn()));
+    }
+
+    @Override
+    public int hashCode() {
+        return SSNFormat.INVALID == packed() ? ssn().hashCode() : packed();
+    }
+
+    // unpackable ssn()s (SSNFormat.INVALID) sort first, by their strings
+    @Override
+    public int compareTo(final SSN another) {
+        return SSNFormat.INVALID == packed() && SSNFormat.INVALID == another.packed() ?
+               ssn().compareTo(another.ssn()) :
+               Integer.compare(packed(), another.packed());
+    }
+
     public String toString() {
         return ssn();
     }
 
     @Value.Check
     protected SSN check() {
-        return validate()
-                // toEither().getOrElseThrow() is required because https://github.com/vavr-io/vavr/issues/2207
-                .toEither()
-                // can't use method reference here: compiler (or at least IntelliJ) finds it ambiguous
-                .getOrElseThrow(errors->new IllegalStateException(errors));
+        return Checks.check(this, RuleSet::ssn);
     }
 
+    private static final Validator<String> CONTENT = content(null);
+
     /*
-     In https://github.com/immutables/immutables/issues/451 I propose
-     @Value.Validate to generate a buildValidation() on the generated Builder class
+     The rules in force under a RuleSet. A RuleSet's pattern can only narrow the format: an SSN
+     must still be ddd-dd-dddd, since that's what packed() packs.
      */
-    private Validation<String,SSN> validate() {
-        final String content = ssn();
-        return Validations.notBlank(content, "SSN")
-                          .combine(Validations.matches(content,"SSN", pattern))
-                          .ap((ssn1,ssn2)->this)
-                          .mapError(Validations::combineErrors);
+    static Validator<SSN> validator(final Pattern narrowed) {
+        return (null == narrowed ? CONTENT : content(narrowed)).on(SSN.class, SSN::ssn);
+    }
+
+    private static Validator<String> content(final Pattern narrowed) {
+        final Validator.AttributeRule<String> format = null == narrowed ?
+                Rules.ssnFormat(pattern) :
+                new Validator.AttributeRule<>(RuleId.MATCHES, (content, parameterName) -> {
+                    final Violation violation = Rules.ssnFormatViolation(content, parameterName, pattern);
+                    return null != violation ? violation : Rules.matchesViolation(content, parameterName, narrowed);
+                });
+        return Validator.<String>builder("SSN")
+                .attribute("SSN", Function.identity(), Validator.Cost.CHEAP, Rules.notBlank(), format)
+                .build();
+    }
+
+    // the same rules on raw content, for parsers that never build an ImmutableSSN
+    static Validation<Seq<Violation>,String> validateContent(final String content) {
+        return CONTENT.validate(content);
     }
 
     /*
+     In https://github.com/immutables/immutables/issues/451 I propose
+     @Value.Validate to generate a buildValidation() on the generated Builder class.
      This method would get generated on the Builder class under my proposal.
-     In that case it wouldn't need to unpack the exception like this because check()
-     would be avoided
+     Until then Checks stands in for it: check() hands its errors back instead of throwing.
      */
     static Validation<String,SSN> buildValidation(final ImmutableSSN.Builder builder) {
-        final Either<? extends Throwable,SSN> pe = Try.of(()->(SSN)builder.build()).toEither();
-        return pe.isLeft() ? Validation.invalid(pe.getLeft().getMessage()) : Validation.valid(pe.get());
+        return Checks.buildValidation(builder::build);
+    }
+
+    static Validation<Seq<Violation>,SSN> buildViolations(final ImmutableSSN.Builder builder) {
+        return Checks.buildViolations(builder::build);
+    }
+
+    static Validation<Seq<Violation>,SSN> buildViolations(final ImmutableSSN.Builder builder,
+                                                          final ValidationPolicy policy) {
+        return Checks.buildViolations(builder::build, policy);
+    }
+
+    private static final BuilderPool<ImmutableSSN.Builder> builders =
+            new BuilderPool<>(ImmutableSSN::builder, ImmutableSSN.Builder::clear);
+
+    /*
+     Same as buildViolations(ImmutableSSN.builder().ssn(ssn)), on this thread's pooled builder.
+     */
+    static Validation<Seq<Violation>,SSN> buildViolations(final String ssn) {
+        final ImmutableSSN.Builder builder = builders.borrow();
+        try {
+            return buildViolations(builder.ssn(ssn));
+        } finally {
+            builders.release(builder);
+        }
+    }
+
+    /*
+     Opt-in canonicalization: equal ssn strings get the same, already validated, instance back.
+     e.g. SSN.buildViolations(ssn, Interner.bounded(1_000_000, SSN::footprint))
+
+     Both this and the cached variant below are keyed on the string alone, so they only hold results
+     of the plain ddd-dd-dddd rules. Under a RuleSet with a narrower pattern, ssn is validated as
+     usual, neither looked up nor stored.
+     */
+    static Validation<Seq<Violation>,SSN> buildViolations(final String ssn, final Interner<String,SSN> interner) {
+        return null == Checks.rules().ssnPattern() ? interner.intern(ssn, s -> buildViolations(s)) : buildViolations(ssn);
+    }
+
+    /*
+     Memoized: repeated ssn strings, valid or not, get their earlier result back without revalidating.
+     */
+    static Validation<Seq<Violation>,SSN> buildViolations(final String ssn,
+                                                     final ValidationCache<String,Seq<Violation>,SSN> cache) {
+        return null == Checks.rules().ssnPattern() ? cache.get(ssn, s -> buildViolations(s)) : buildViolations(ssn);
+    }
+
+    // rough bytes held by one instance, for Interner statistics
+    static long footprint(final SSN ssn) {
+        return ssn instanceof PackedSSN ? 16 : 24 + Interner.stringFootprint(ssn.ssn());
     }
 
 }
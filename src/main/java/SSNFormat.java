@@ -0,0 +1,75 @@
+import java.nio.ByteBuffer;
+
+/*
+ Hand-written scanner for the fixed 11-character SSN format, ddd-dd-dddd (ASCII digits only, just like
+ \d without UNICODE_CHARACTER_CLASS). Unlike Pattern.matcher() it allocates nothing.
+
+ The nine digits also pack into an int (at most 999,999,999), which is how PackedSSN stores them.
+ */
+final class SSNFormat {
+    static final int LENGTH = 11;
+    static final int MAX_PACKED = 999_999_999;
+    static final int INVALID = -1;
+
+    private SSNFormat() {}
+
+    static boolean matches(final CharSequence content) {
+        return INVALID != pack(content);
+    }
+
+    // the packed digits, or INVALID if content isn't ddd-dd-dddd
+    static int pack(final CharSequence content) {
+        if (null == content || content.length() != LENGTH) {
+            return INVALID;
+        }
+        int packed = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            final char c = content.charAt(i);
+            if (i == 3 || i == 6) {
+                if (c != '-') {
+                    return INVALID;
+                }
+            } else if (c >= '0' && c <= '9') {
+                packed = packed * 10 + (c - '0');
+            } else {
+                return INVALID;
+            }
+        }
+        return packed;
+    }
+
+    // the same, for the bytes [from, to) of content, e.g. a field of a memory-mapped file
+    static int pack(final ByteBuffer content, final int from, final int to) {
+        if (to - from != LENGTH) {
+            return INVALID;
+        }
+        int packed = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            final byte b = content.get(from + i);
+            if (i == 3 || i == 6) {
+                if (b != '-') {
+                    return INVALID;
+                }
+            } else if (b >= '0' && b <= '9') {
+                packed = packed * 10 + (b - '0');
+            } else {
+                return INVALID;
+            }
+        }
+        return packed;
+    }
+
+    static String unpack(final int packed) {
+        final char[] chars = new char[LENGTH];
+        int rest = packed;
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            if (i == 3 || i == 6) {
+                chars[i] = '-';
+            } else {
+                chars[i] = (char) ('0' + rest % 10);
+                rest /= 10;
+            }
+        }
+        return new String(chars);
+    }
+}
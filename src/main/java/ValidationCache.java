@@ -0,0 +1,193 @@
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import io.vavr.control.Validation;
+
+/*
+ Memoizes validation results, valid and invalid alike, keyed on the raw input. A hit hands back the
+ earlier result without building, validating or formatting anything.
+
+ Reads are a ConcurrentHashMap get() plus two unsynchronized writes to the entry's access metadata.
+ Eviction is approximate, in the style of the CLOCK algorithm: when the cache is over size, whichever
+ thread wins a try-lock sweeps a cursor over the entries, samples a few, and evicts the least recently
+ used (LRU) or least frequently used (LFU) one. Everybody else carries on; nobody waits for the sweep.
+ LFU counts halve every time the cache has turned over ten times, so formerly hot entries age out.
+
+ Access metadata is updated racily: a lost update only makes eviction slightly less accurate.
+ */
+public final class ValidationCache<K, E, T> {
+
+    public enum Eviction { LRU, LFU }
+
+    private static final int SAMPLE = 8;
+
+    private final ConcurrentHashMap<K, Entry<E, T>> entries = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final Eviction eviction;
+    private final LongSupplier clock;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private Iterator<Map.Entry<K, Entry<E, T>>> cursor; // only touched while sweeping
+    private long swept;                                 // only touched while sweeping
+    private volatile int epoch;                         // LFU aging: counts halve once per epoch
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    ValidationCache(final int maximumSize, final long timeToLive, final TimeUnit unit,
+                    final Eviction eviction, final LongSupplier clock) {
+        if (maximumSize < 1 || timeToLive < 1) {
+            throw new IllegalArgumentException(
+                    String.format("maximumSize (%d) and timeToLive (%d) must be positive.", maximumSize, timeToLive));
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.eviction = Objects.requireNonNull(eviction, "eviction");
+        this.clock = clock;
+    }
+
+    public ValidationCache(final int maximumSize, final long timeToLive, final TimeUnit unit, final Eviction eviction) {
+        this(maximumSize, timeToLive, unit, eviction, System::nanoTime);
+    }
+
+    public ValidationCache(final int maximumSize, final Eviction eviction) {
+        this(maximumSize, Long.MAX_VALUE, TimeUnit.NANOSECONDS, eviction);
+    }
+
+    /*
+     The cached result for key, or validate's result (which is then cached) on a miss.
+     Concurrent misses on the same key may each validate; validation is side-effect free, so the
+     only cost is the duplicated work.
+     */
+    public Validation<E, T> get(final K key, final Function<? super K, ? extends Validation<E, T>> validate) {
+        final long now = clock.getAsLong();
+        final Entry<E, T> entry = entries.get(key);
+        if (null != entry) {
+            if (now - entry.created <= timeToLiveNanos) {
+                hits.increment();
+                touch(entry, now);
+                return entry.result;
+            }
+            if (entries.remove(key, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        final Validation<E, T> result = validate.apply(key);
+        entries.put(key, new Entry<>(result, now, epoch));
+        if (entries.size() > maximumSize) {
+            sweep(now);
+        }
+        return result;
+    }
+
+    public long hits() {return hits.sum();}
+    public long misses() {return misses.sum();}
+    public long evictions() {return evictions.sum();}
+    public long expirations() {return expirations.sum();}
+    public int size() {return entries.size();}
+
+    public double hitRate() {
+        final long h = hits.sum();
+        final long total = h + misses.sum();
+        return 0 == total ? 0 : (double) h / total;
+    }
+
+    public void clear() {entries.clear();}
+
+    @Override
+    public String toString() {
+        return String.format("ValidationCache(%s, size=%d, hits=%d, misses=%d, evictions=%d, expirations=%d)",
+                             eviction, size(), hits(), misses(), evictions(), expirations());
+    }
+
+    private void sweep(final long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return; // somebody else is on it
+        }
+        try {
+            while (entries.size() > maximumSize) {
+                evictOne(now);
+                if (++swept % (10L * maximumSize) == 0) {
+                    epoch++;
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private void evictOne(final long now) {
+        Map.Entry<K, Entry<E, T>> victim = null;
+        for (int sampled = 0; sampled < SAMPLE; sampled++) {
+            if (null == cursor || !cursor.hasNext()) {
+                cursor = entries.entrySet().iterator();
+                if (!cursor.hasNext()) {
+                    break;
+                }
+            }
+            final Map.Entry<K, Entry<E, T>> candidate = cursor.next();
+            final Entry<E, T> entry = candidate.getValue();
+            if (now - entry.created > timeToLiveNanos) {
+                if (entries.remove(candidate.getKey(), entry)) {
+                    expirations.increment();
+                }
+                return;
+            }
+            if (null == victim || colder(entry, victim.getValue())) {
+                victim = candidate;
+            }
+        }
+        if (null != victim && entries.remove(victim.getKey(), victim.getValue())) {
+            evictions.increment();
+        }
+    }
+
+    private void touch(final Entry<E, T> entry, final long now) {
+        entry.lastAccess = now;
+        final int current = epoch;
+        if (entry.epoch != current) {
+            entry.frequency = frequency(entry, current);
+            entry.epoch = current;
+        }
+        entry.frequency++;
+    }
+
+    private boolean colder(final Entry<E, T> entry, final Entry<E, T> than) {
+        if (Eviction.LRU == eviction) {
+            return entry.lastAccess < than.lastAccess;
+        }
+        final int current = epoch;
+        return frequency(entry, current) < frequency(than, current);
+    }
+
+    // the access count, halved for every epoch since the entry was last touched
+    private static int frequency(final Entry<?, ?> entry, final int epoch) {
+        return entry.frequency >>> Math.min(31, epoch - entry.epoch);
+    }
+
+    private static final class Entry<E, T> {
+        final Validation<E, T> result;
+        final long created;
+        volatile long lastAccess;
+        volatile int frequency;
+        volatile int epoch;
+
+        Entry(final Validation<E, T> result, final long created, final int epoch) {
+            this.result = result;
+            this.created = created;
+            this.lastAccess = created;
+            this.epoch = epoch;
+        }
+    }
+}
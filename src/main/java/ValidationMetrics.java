@@ -0,0 +1,26 @@
+/*
+ Where validation reports what it does, once installed with Metrics.install().
+ InMemoryMetrics is the default implementation; adapt this interface to plug in another metrics library.
+
+ Validators ask for their counters and recorders once and then hold on to them, but the rules
+ in Rules ask on every call, so lookups should be cheap and return the same instance for the same
+ arguments. Recording happens on every validating thread and must be thread-safe and non-blocking.
+ */
+public interface ValidationMetrics {
+
+    interface RuleCounter {
+        void passed();
+        void failed();
+    }
+
+    interface LatencyRecorder {
+        // nanos spent validating one instance, and whether it passed
+        void record(long nanos, boolean valid);
+    }
+
+    // parameterName may be null
+    RuleCounter rule(RuleId rule, String parameterName);
+
+    // typeName is the simple name of the validated type, e.g. "Person"
+    LatencyRecorder type(String typeName);
+}
@@ -0,0 +1,16 @@
+/*
+ How much work a validation does once a rule has failed.
+ */
+public enum ValidationPolicy {
+    /*
+     Evaluate every rule and report every violation. This is the default, and what check() uses
+     outside of buildValidation().
+     */
+    ACCUMULATE,
+
+    /*
+     Stop at the first failing rule, evaluating cheap rules before expensive ones. For callers that
+     only need a yes/no answer, or are shedding abusive traffic.
+     */
+    FAIL_FAST
+}
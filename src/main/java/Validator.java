@@ -0,0 +1,391 @@
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+/*
+ A type's rules, declared once and compiled into a reusable validator.
+
+ Declaring the rules for Person looks like this:
+
+     static final Validator<Person> VALIDATOR = Validator.builder(Person.class)
+             .attribute("name", Person::name, Validator.Cost.MODERATE, Rules.notBlank(), Rules.maximumLength(16))
+             .rule(RuleId.ADULTS_REQUIRE_SSN, "ssn", Validator.Cost.CHEAP,
+                   (person, parameterName) -> Rules.adultsRequireSSNViolation(person.ssn().isDefined(), parameterName, person.age()))
+             .build();
+
+ Rather than chaining vavr Validations through combine()/ap()/mapError() on every construction,
+ violations() runs every rule in a single loop. A rule passes by returning null, so a target that
+ passes everything allocates nothing at all; violations are only collected once something fails.
+
+ ACCUMULATE runs the rules in declaration order, which is also the order violations are reported in.
+ FAIL_FAST runs them cheapest first (declaration order within a Cost) and stops at the first failure.
+
+ A rule can declare the attributes it depends on with dependsOn(). Checking an immutable target then
+ compares it against the last valid target this thread checked, and skips every rule whose dependencies
+ are all equal: that rule already passed on those very values. So ImmutablePerson.withSsn() reruns the
+ SSN rule but never computes name(). Since a rule's verdict only depends on the values, this holds whether
+ or not the target was actually copied from that last one; a miss just means a full pass.
+
+ That last valid target stays reachable from its thread until the thread checks another one here, so
+ every thread holds on to one target per such Validator. forget() lets go of all of them: RuleSets
+ calls it on the Validators of a RuleSet it supersedes, which would otherwise keep a stale target per
+ thread reachable from the thread-local map long after the RuleSet itself is gone.
+ */
+public final class Validator<T> {
+
+    // how expensive a rule is to evaluate, accessor included. Only orders rules under FAIL_FAST
+    public enum Cost { CHEAP, MODERATE, EXPENSIVE }
+
+    /*
+     One rule applied to one value. Returns the Violation, or null if value passes.
+     */
+    @FunctionalInterface
+    public interface Test<A> {
+        Violation test(A value, String parameterName);
+    }
+
+    /*
+     A Test along with the RuleId its Violations carry, so the rule can be identified without failing it.
+     */
+    public static final class AttributeRule<A> {
+        private final RuleId rule;
+        private final Test<? super A> test;
+
+        public AttributeRule(final RuleId rule, final Test<? super A> test) {
+            this.rule = Objects.requireNonNull(rule, "rule");
+            this.test = Objects.requireNonNull(test, "test");
+        }
+
+        public RuleId rule() {return rule;}
+    }
+
+    private static final class Constraint<T> {
+        final int index;     // declaration order
+        final int attribute; // constraints from the same attribute() call share its value
+        final RuleId rule;
+        final String parameterName;
+        final Cost cost;
+        final Function<? super T, ?> accessor;
+        final Test<Object> test;
+        final Function<? super T, ?>[] dependencies; // null if undeclared: always rerun
+
+        @SuppressWarnings("unchecked")
+        Constraint(final int index, final int attribute, final RuleId rule, final String parameterName, final Cost cost,
+                   final Function<? super T, ?> accessor, final Test<?> test, final Function<? super T, ?>[] dependencies) {
+            this.index = index;
+            this.attribute = attribute;
+            this.rule = rule;
+            this.parameterName = parameterName;
+            this.cost = cost;
+            this.accessor = accessor;
+            this.test = (Test<Object>) test;
+            this.dependencies = dependencies;
+        }
+
+        // true if this rule must pass on target, since it passed on previous with the same dependencies
+        boolean unchanged(final T previous, final T target) {
+            if (null == dependencies) {
+                return false;
+            }
+            for (final Function<? super T, ?> dependency : dependencies) {
+                if (!Objects.equals(dependency.apply(previous), dependency.apply(target))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // the counters and latency recorder of the installed ValidationMetrics, looked up once
+    private static final class Bound {
+        final ValidationMetrics metrics;
+        final ValidationMetrics.RuleCounter[] counters;
+        final ValidationMetrics.LatencyRecorder latency;
+
+        Bound(final ValidationMetrics metrics, final ValidationMetrics.RuleCounter[] counters,
+              final ValidationMetrics.LatencyRecorder latency) {
+            this.metrics = metrics;
+            this.counters = counters;
+            this.latency = latency;
+        }
+    }
+
+    private final String typeName;
+    private final Constraint<T>[] declared;
+    private final Constraint<T>[] cheapestFirst;
+    private volatile Bound bound;
+    // both null unless some rule declared its dependencies
+    private final ThreadLocal<LastValid<T>> lastValid;
+    private final ConcurrentLinkedQueue<WeakReference<LastValid<T>>> slots; // every thread's, for forget()
+
+    private Validator(final String typeName, final Constraint<T>[] declared) {
+        this.typeName = typeName;
+        this.declared = declared;
+        this.cheapestFirst = declared.clone();
+        Arrays.sort(cheapestFirst, Comparator.comparing(constraint -> constraint.cost)); // stable
+        if (Arrays.stream(declared).anyMatch(constraint -> null != constraint.dependencies)) {
+            this.slots = new ConcurrentLinkedQueue<>();
+            this.lastValid = ThreadLocal.withInitial(() -> {
+                final LastValid<T> slot = new LastValid<>();
+                slots.removeIf(thread -> null == thread.get()); // threads that are gone
+                slots.add(new WeakReference<>(slot));
+                return slot;
+            });
+        } else {
+            this.slots = null;
+            this.lastValid = null;
+        }
+    }
+
+    // one thread's last valid target; written by other threads only to forget it
+    private static final class LastValid<T> {
+        T target;
+    }
+
+    /*
+     Metrics report the rules' latency under type's simple name.
+     */
+    public static <T> Builder<T> builder(final Class<T> type) {
+        return new Builder<>(type.getSimpleName());
+    }
+
+    public static <T> Builder<T> builder(final String typeName) {
+        return new Builder<>(Objects.requireNonNull(typeName, "typeName"));
+    }
+
+    /*
+     These rules applied to an attribute of U, e.g. a Validator<String> for raw content reused as the
+     Validator<SSN> on SSN::ssn.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <U> Validator<U> on(final Class<U> type, final Function<? super U, ? extends T> accessor) {
+        final Constraint<U>[] composed = new Constraint[declared.length];
+        for (int i = 0; i < declared.length; i++) {
+            final Constraint<T> constraint = declared[i];
+            Function<? super U, ?>[] dependencies = null;
+            if (null != constraint.dependencies) {
+                dependencies = new Function[constraint.dependencies.length];
+                for (int j = 0; j < dependencies.length; j++) {
+                    dependencies[j] = accessor.andThen(constraint.dependencies[j]);
+                }
+            }
+            composed[i] = new Constraint<>(constraint.index, constraint.attribute, constraint.rule, constraint.parameterName, constraint.cost,
+                                           accessor.andThen(constraint.accessor), constraint.test, dependencies);
+        }
+        return new Validator<>(type.getSimpleName(), composed);
+    }
+
+    public Validation<Seq<Violation>, T> validate(final T target) {
+        return validate(target, ValidationPolicy.ACCUMULATE);
+    }
+
+    public Validation<Seq<Violation>, T> validate(final T target, final ValidationPolicy policy) {
+        final Seq<Violation> violations = violations(target, policy);
+        return null == violations ? Validation.valid(target) : Validation.invalid(violations);
+    }
+
+    /*
+     The fused single pass: the violations, or null if target passes every rule.
+     Each attribute is read once, however many rules it has.
+     With Metrics installed, every rule evaluation is counted and the whole pass is timed.
+     */
+    public Seq<Violation> violations(final T target, final ValidationPolicy policy) {
+        return violations(target, null, policy);
+    }
+
+    /*
+     Like violations(), but skips the rules whose declared dependencies are unchanged since the last valid
+     target this thread checked here, and remembers target if it's valid. Only for immutable targets, as
+     from a @Value.Check method: a mutable one (say a PersonTable.Row) could change after it's remembered.
+     */
+    Seq<Violation> incrementalViolations(final T target, final ValidationPolicy policy) {
+        if (null == lastValid) {
+            return violations(target, null, policy);
+        }
+        final LastValid<T> slot = lastValid.get();
+        final Seq<Violation> violations = violations(target, slot.target, policy);
+        if (null == violations) {
+            slot.target = target;
+        }
+        return violations;
+    }
+
+    /*
+     Lets go of the last valid target of every thread, which then makes one full pass on its next
+     check here. A thread checking at the same time may remember its target again.
+     */
+    void forget() {
+        if (null == slots) {
+            return;
+        }
+        for (final WeakReference<LastValid<T>> thread : slots) {
+            final LastValid<T> slot = thread.get();
+            if (null != slot) {
+                slot.target = null;
+            }
+        }
+    }
+
+    private Seq<Violation> violations(final T target, final T previous, final ValidationPolicy policy) {
+        final ValidationMetrics metrics = Metrics.installed();
+        if (null == metrics) {
+            return violations(target, previous, policy, null);
+        }
+        final Bound bound = bind(metrics);
+        final long start = System.nanoTime();
+        final Seq<Violation> violations = violations(target, previous, policy, bound.counters);
+        bound.latency.record(System.nanoTime() - start, null == violations);
+        return violations;
+    }
+
+    // skipped rules (those unchanged since previous) aren't counted
+    private Seq<Violation> violations(final T target, final T previous, final ValidationPolicy policy,
+                                      final ValidationMetrics.RuleCounter[] counters) {
+        int attribute = -1;
+        Object value = null;
+        boolean skip = false;
+        if (ValidationPolicy.FAIL_FAST == policy) {
+            for (final Constraint<T> constraint : cheapestFirst) {
+                if (constraint.attribute != attribute) {
+                    attribute = constraint.attribute;
+                    skip = null != previous && constraint.unchanged(previous, target);
+                    value = skip ? null : constraint.accessor.apply(target);
+                }
+                if (skip) {
+                    continue;
+                }
+                final Violation violation = constraint.test.test(value, constraint.parameterName);
+                if (null != counters) {
+                    count(counters[constraint.index], violation);
+                }
+                if (null != violation) {
+                    return List.of(violation);
+                }
+            }
+            return null;
+        }
+        Violation first = null;
+        ArrayList<Violation> all = null;
+        for (final Constraint<T> constraint : declared) {
+            if (constraint.attribute != attribute) {
+                attribute = constraint.attribute;
+                skip = null != previous && constraint.unchanged(previous, target);
+                value = skip ? null : constraint.accessor.apply(target);
+            }
+            if (skip) {
+                continue;
+            }
+            final Violation violation = constraint.test.test(value, constraint.parameterName);
+            if (null != counters) {
+                count(counters[constraint.index], violation);
+            }
+            if (null != violation) {
+                if (null == first) {
+                    first = violation;
+                } else {
+                    if (null == all) {
+                        all = new ArrayList<>(declared.length);
+                        all.add(first);
+                    }
+                    all.add(violation);
+                }
+            }
+        }
+        return null == first ? null : null == all ? List.of(first) : List.ofAll(all);
+    }
+
+    private static void count(final ValidationMetrics.RuleCounter counter, final Violation violation) {
+        if (null == violation) {
+            counter.passed();
+        } else {
+            counter.failed();
+        }
+    }
+
+    private Bound bind(final ValidationMetrics metrics) {
+        final Bound current = bound;
+        if (null != current && current.metrics == metrics) {
+            return current;
+        }
+        // racing threads may each bind; they get the same counters from metrics anyway
+        final ValidationMetrics.RuleCounter[] counters = new ValidationMetrics.RuleCounter[declared.length];
+        for (final Constraint<T> constraint : declared) {
+            counters[constraint.index] = metrics.rule(constraint.rule, constraint.parameterName);
+        }
+        final Bound bound = new Bound(metrics, counters, metrics.type(typeName));
+        this.bound = bound;
+        return bound;
+    }
+
+    public static final class Builder<T> {
+        private final String typeName;
+        private final ArrayList<Constraint<T>> constraints = new ArrayList<>();
+        private int attributes;
+
+        private Builder(final String typeName) {
+            this.typeName = typeName;
+        }
+
+        /*
+         Rules on one attribute of the target, reported under parameterName.
+         */
+        @SafeVarargs
+        public final <A> Builder<T> attribute(final String parameterName,
+                                              final Function<? super T, ? extends A> accessor,
+                                              final Cost cost,
+                                              final AttributeRule<? super A>... rules) {
+            Objects.requireNonNull(accessor, "accessor");
+            final int attribute = attributes++;
+            for (final AttributeRule<? super A> rule : rules) {
+                constraints.add(new Constraint<>(constraints.size(), attribute, rule.rule, parameterName, cost, accessor, rule.test, null));
+            }
+            return this;
+        }
+
+        /*
+         A rule on the whole target, typically a cross-field one, reported under parameterName.
+         */
+        public Builder<T> rule(final RuleId rule, final String parameterName, final Cost cost, final Test<? super T> test) {
+            constraints.add(new Constraint<T>(constraints.size(), attributes++, Objects.requireNonNull(rule, "rule"), parameterName, cost,
+                                              Function.identity(), Objects.requireNonNull(test, "test"), null));
+            return this;
+        }
+
+        /*
+         The attributes the rules of the preceding attribute() or rule() call read, e.g. Person::firstName
+         and Person::lastName for the rules on name(). Each must be cheap, and the rules must depend on
+         nothing else (compared with equals()); rules without dependencies always rerun.
+         */
+        @SafeVarargs
+        @SuppressWarnings({"unchecked", "varargs"})
+        public final Builder<T> dependsOn(final Function<? super T, ?>... dependencies) {
+            if (constraints.isEmpty()) {
+                throw new IllegalStateException("dependsOn() must follow attribute() or rule().");
+            }
+            final Function<? super T, ?>[] copy = dependencies.clone();
+            for (final Function<? super T, ?> dependency : copy) {
+                Objects.requireNonNull(dependency, "dependency");
+            }
+            final int attribute = attributes - 1;
+            for (int i = constraints.size() - 1; i >= 0 && constraints.get(i).attribute == attribute; i--) {
+                final Constraint<T> constraint = constraints.get(i);
+                constraints.set(i, new Constraint<>(constraint.index, constraint.attribute, constraint.rule, constraint.parameterName,
+                                                    constraint.cost, constraint.accessor, constraint.test, copy));
+            }
+            return this;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Validator<T> build() {
+            return new Validator<>(typeName, constraints.toArray(new Constraint[0]));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+ A failed validation rule: which rule, which parameter and the offending arguments, and optionally
+ where in the input it was found (e.g. a JSON path like $.ssn).
+ The human-readable message is only rendered when message() (or toString()) is called.
+ */
+public final class Violation {
+    private final RuleId rule;
+    private final String parameterName;
+    private final Object[] arguments;
+    private final String path; // null if not known
+
+    // rendered on demand; a racy single-check is fine since Strings are immutable
+    private String message;
+
+    private Violation(final RuleId rule, final String parameterName, final Object[] arguments, final String path) {
+        this.rule = rule;
+        this.parameterName = parameterName;
+        this.arguments = arguments;
+        this.path = path;
+    }
+
+    static Violation of(final RuleId rule, final String parameterName, final Object... arguments) {
+        return new Violation(Objects.requireNonNull(rule, "rule"), parameterName, arguments, null);
+    }
+
+    // the same violation, found at path
+    public Violation at(final String path) {
+        final Violation located = new Violation(rule, parameterName, arguments, path);
+        located.message = message;
+        return located;
+    }
+
+    public RuleId rule() {return rule;}
+    public String parameterName() {return parameterName;}
+    public Object[] arguments() {return arguments.clone();}
+    public String path() {return path;}
+
+    public String message() {
+        String m = message;
+        if (null == m) {
+            message = m = rule.render(parameterName, arguments);
+        }
+        return m;
+    }
+
+    @Override
+    public boolean equals(final Object another) {
+        if (this == another) return true;
+        if (!(another instanceof Violation)) return false;
+        final Violation that = (Violation) another;
+        return rule == that.rule
+               && Objects.equals(parameterName, that.parameterName)
+               && Arrays.equals(arguments, that.arguments)
+               && Objects.equals(path, that.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rule, parameterName, Arrays.hashCode(arguments), path);
+    }
+
+    @Override
+    public String toString() {
+        return null == path ? message() : path + ": " + message();
+    }
+}
@@ -0,0 +1,20 @@
+import org.immutables.value.Value;
+
+/*
+ A validated age. Person keeps a plain int age() and applies the same rule to it, so persons don't
+ carry an extra object each; Age is for APIs that want the type.
+ */
+@Value.Immutable @Wrapped
+abstract class _Age extends IntWrapper {
+    static final int MINIMUM = 0;
+    static final int MAXIMUM = 150;
+
+    private static final Validator<_Age> VALIDATOR = Validator.<_Age>builder("Age")
+            .rule(RuleId.RANGE, "age", Validator.Cost.CHEAP, Rules.intRange(_Age::value, MINIMUM, MAXIMUM))
+            .build();
+
+    @Value.Check
+    protected _Age check() {
+        return Checks.check(this, VALIDATOR);
+    }
+}
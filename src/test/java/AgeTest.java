@@ -0,0 +1,62 @@
+import java.util.Optional;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Try;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class AgeTest {
+
+    @Test
+    public void testValidAge() {
+        final Age age = Age.of(40);
+        assertThat(age.value(),is(40));
+        assertThat(age.toString(),is("Age(40)"));
+        assertThat(age,is(Age.of(40)));
+    }
+
+    @Test
+    public void testAgeOutOfRange() {
+        final Try<Age> age = Try.of(() -> Age.of(-1));
+        assertThat(age.getCause(),is(instanceOf(IllegalStateException.class)));
+        assertThat(age.getCause().getMessage(),is("age value -1 is out of range: must be between 0 and 150."));
+    }
+
+    @Test
+    public void testPersonAgeUsesTheSameRule() {
+        final Seq<Violation> violations = Person.buildViolations(
+                ImmutablePerson.builder().firstName("Methuselah").lastName("X").age(969)).getError();
+        assertThat(Validations.combineViolations(violations),
+                   is("969-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years." +
+                      " age value 969 is out of range: must be between 0 and 150."));
+    }
+
+    @Test
+    public void testPerson2AgeUsesTheSameRule() {
+        final Seq<Violation> violations = Person2.person2Violations(
+                Optional.empty(), "Methuselah", "X", 969, Optional.empty(), ValidationPolicy.ACCUMULATE).getError();
+        assertThat(Validations.combineViolations(violations),
+                   is("969-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years." +
+                      " age value 969 is out of range: must be between 0 and 150."));
+    }
+
+    @Test
+    public void testLongAndDoubleRules() {
+        final Validator<double[]> amounts = Validator.<double[]>builder("Amounts")
+                .rule(RuleId.RANGE, "rate", Validator.Cost.CHEAP, Rules.doubleRange(a -> a[0], 0.0, 1.0))
+                .rule(RuleId.MINIMUM, "cents", Validator.Cost.CHEAP, Rules.longMinimum(a -> (long) a[1], 0L))
+                .rule(RuleId.MAXIMUM, "cents", Validator.Cost.CHEAP, Rules.longMaximum(a -> (long) a[1], 100L))
+                .build();
+
+        assertThat(amounts.violations(new double[]{0.5, 100}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(Validations.combineViolations(amounts.violations(new double[]{Double.NaN, -1}, ValidationPolicy.ACCUMULATE)),
+                   is("rate value NaN is out of range: must be between 0.0 and 1.0." +
+                      " cents value -1 is too small: must be at least 0."));
+        assertThat(amounts.violations(new double[]{1.0, 101}, ValidationPolicy.ACCUMULATE).head().message(),
+                   is("cents value 101 is too large: must be at most 100."));
+    }
+}
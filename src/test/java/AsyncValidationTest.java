@@ -0,0 +1,121 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class AsyncValidationTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testConcurrentLookupsAreBatched() {
+        final InMemoryLookup<ID> ids = new InMemoryLookup<>(20, TimeUnit.MILLISECONDS);
+        final BatchingLookup<ID> batching = new BatchingLookup<>(ids);
+
+        final List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(ImmutableID.of("id" + 2 * i));
+            results.add(batching.exists(ImmutableID.of("id" + i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).join(),is(i % 2 == 0));
+        }
+        assertThat(ids.keysLookedUp(),is(100L));
+        assertThat(ids.calls() <= 3,is(true)); // the first key alone, then everything that queued meanwhile
+    }
+
+    @Test
+    public void testValidPerson() {
+        final AsyncPersonValidator validator = validator(
+                new InMemoryLookup<ID>(1, TimeUnit.MILLISECONDS).add(ImmutableID.of("1")),
+                new InMemoryLookup<>(1, TimeUnit.MILLISECONDS));
+
+        final Validation<Seq<Violation>,Person> result =
+                validator.validate(RawPerson.of("111-22-3333", "1", "Fred", "Flintstone", 40)).join();
+
+        assertThat(result.get().id().get(),is(ImmutableID.of("1")));
+    }
+
+    @Test
+    public void testLookupViolationsAccumulateWithRuleViolations() {
+        final AsyncPersonValidator validator = validator(
+                new InMemoryLookup<>(1, TimeUnit.MILLISECONDS),
+                new InMemoryLookup<SSN>(1, TimeUnit.MILLISECONDS).add(ImmutableSSN.of("111-22-3333")));
+
+        final Validation<Seq<Violation>,Person> result =
+                validator.validate(RawPerson.of("111-22-3333", "7", "John Jacob", "Jingleheimerschmidt", 40)).join();
+
+        assertThat(Validations.combineViolations(result.getError()),
+                   is("30 character name is too long: exceeds maximum name length of 16 characters." +
+                      " id '7' does not exist: must refer to an existing one." +
+                      " ssn '111-22-3333' is already registered: must be unique."));
+    }
+
+    @Test
+    public void testRuleSetOfCaller() {
+        final AsyncPersonValidator validator = validator(
+                new InMemoryLookup<ID>(1, TimeUnit.MILLISECONDS).add(ImmutableID.of("1")),
+                new InMemoryLookup<>(1, TimeUnit.MILLISECONDS));
+        final RuleSet shortNames = RuleSet.of(1, 8, 17, null);
+
+        final Validation<Seq<Violation>,Person> result = shortNames.apply(
+                () -> validator.validate(RawPerson.of("111-22-3333", "1", "Fred", "Flintstone", 40))).value().join();
+
+        assertThat(Validations.combineViolations(result.getError()),
+                   is("15 character name is too long: exceeds maximum name length of 8 characters."));
+    }
+
+    @Test
+    public void testInvalidValuesAreNotLookedUp() {
+        final InMemoryLookup<SSN> ssns = new InMemoryLookup<>(0, TimeUnit.MILLISECONDS);
+        final AsyncPersonValidator validator = validator(new InMemoryLookup<>(0, TimeUnit.MILLISECONDS), ssns);
+
+        final Validation<Seq<Violation>,Person> result =
+                validator.validate(RawPerson.of("111-2x-3333", null, "Fred", "Flintstone", 12)).join();
+
+        assertThat(result.getError().map(Violation::rule).toJavaList(),is(Collections.singletonList(RuleId.MATCHES)));
+        assertThat(ssns.calls(),is(0L));
+    }
+
+    @Test
+    public void testLookupFailurePropagates() {
+        final Lookup<ID> failing = (final Set<ID> keys) -> {
+            final CompletableFuture<Set<ID>> result = new CompletableFuture<>();
+            result.completeExceptionally(new IllegalStateException("lookup down"));
+            return result;
+        };
+        final AsyncPersonValidator validator = new AsyncPersonValidator(
+                executor, new BatchingLookup<>(failing), new BatchingLookup<>(new InMemoryLookup<>(0, TimeUnit.MILLISECONDS)));
+
+        try {
+            validator.validate(RawPerson.of(null, "1", "Fred", "Flintstone", 12)).join();
+            fail("expected the lookup failure");
+        } catch (final CompletionException e) {
+            assertThat(e.getCause().getMessage(),is("lookup down"));
+        }
+    }
+
+    private AsyncPersonValidator validator(final InMemoryLookup<ID> ids, final InMemoryLookup<SSN> ssns) {
+        return new AsyncPersonValidator(executor, new BatchingLookup<>(ids), new BatchingLookup<>(ssns));
+    }
+}
@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class BatchRulesTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDuplicatesReportFirstRow() {
+        final List<RawPerson> rows = Arrays.asList(
+                RawPerson.of("111-22-3333", "a", "Fred", "Flintstone", 40),
+                RawPerson.of("222-33-4444", "b", "Wilma", "Flintstone", 40),
+                RawPerson.of("111-22-3333", "c", "Barney", "Rubble", 40),      // SSN of row 0
+                RawPerson.of("333-44-5555", "b", "Betty", "Rubble", 40),       // ID of row 1
+                RawPerson.of("111-22-3333", "b", "Dino", "Flintstone", 40),    // both
+                RawPerson.of("444-55-6666", "d", "Pebbles", "Flintstone", 2)); // fails its own rules
+        final List<String> invalid = new ArrayList<>();
+
+        try (final BatchRule<Person> unique = BatchRule.all(BatchRules.uniqueSSN(), BatchRules.uniqueID())) {
+            final long count = new BulkValidator(executor, 2, 2).validatePersons(
+                    rows, unique, person -> {}, (violations, row) -> invalid.add(row + " " + violations.mkString(" ")));
+            assertThat(count,is(6L));
+        }
+        assertThat(invalid,is(Arrays.asList(
+                "2 ssn '111-22-3333' is a duplicate: first appeared in row 0.",
+                "3 id 'b' is a duplicate: first appeared in row 1.",
+                "4 ssn '111-22-3333' is a duplicate: first appeared in row 0. id 'b' is a duplicate: first appeared in row 1.",
+                "5 18 character name is too long: exceeds maximum name length of 16 characters.")));
+    }
+
+    @Test
+    public void testAbsentValuesAndFailedRowsNotIndexed() {
+        try (final BatchRule<Person> unique = BatchRules.uniqueSSN()) {
+            final Person child = RawPerson.of(null, null, "Pebbles", "Stone", 2).toPerson().get();
+            assertThat(unique.violations(child, 0).isEmpty(),is(true));
+            assertThat(unique.violations(child, 1).isEmpty(),is(true));
+
+            // a row that failed its own rules leaves nothing behind for later rows to clash with
+            assertThat(unique.validate(RawPerson.of("111-22-3333", " ", "Fred", "Flintstone", 40).toPerson(), 2).getError().length(),is(1));
+            assertThat(unique.validate(RawPerson.of("111-22-3333", "7", "Fred", "Flintstone", 40).toPerson(), 3).isValid(),is(true));
+        }
+    }
+
+    @Test
+    public void testRowsRejectedByAnotherRuleNotIndexed() {
+        try (final BatchRule<Person> unique = BatchRule.all(BatchRules.uniqueSSN(), BatchRules.uniqueID())) {
+            final Person fred = RawPerson.of("111-22-3333", "a", "Fred", "Flintstone", 40).toPerson().get();
+            final Person barney = RawPerson.of("222-33-4444", "a", "Barney", "Rubble", 40).toPerson().get();
+            final Person betty = RawPerson.of("222-33-4444", "b", "Betty", "Rubble", 40).toPerson().get();
+            assertThat(unique.check(fred, 0).isEmpty(),is(true));
+
+            // barney's ID clashes with fred's, so his SSN is not kept either
+            assertThat(unique.check(barney, 1).mkString(),is("id 'a' is a duplicate: first appeared in row 0."));
+            assertThat(unique.check(betty, 2).isEmpty(),is(true));
+        }
+    }
+
+    @Test
+    public void testIndexSpillsToDisk() throws IOException {
+        final Path directory = Files.createTempDirectory("spill");
+        try (final FirstRowIndex index = new FirstRowIndex(1 << 12, directory)) {
+            for (long row = 0; row < 100_000; row++) {
+                assertThat(index.putIfAbsent(row * 7919, row),is(FirstRowIndex.ABSENT));
+            }
+            assertThat(index.spilled(),is(true));
+            assertThat(index.size(),is(100_000L));
+            for (long row = 0; row < 100_000; row += 997) {
+                assertThat(index.putIfAbsent(row * 7919, row + 1),is(row));
+            }
+        }
+        try (final Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count(),is(0L));
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testIndexWithoutSpillStaysOnHeap() {
+        try (final FirstRowIndex index = new FirstRowIndex()) {
+            for (long key = -50_000; key < 50_000; key++) {
+                index.putIfAbsent(key, key + 50_000);
+            }
+            assertThat(index.spilled(),is(false));
+            assertThat(index.putIfAbsent(-50_000, 0),is(0L));
+            assertThat(index.putIfAbsent(0, 0),is(50_000L));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class BinaryCodecTest {
+
+    private static final Person fred = ImmutablePerson.builder()
+                                                      .firstName("Fred").lastName("Flintstone").age(40)
+                                                      .setValueSsn(ImmutableSSN.of("111-22-3333"))
+                                                      .setValueId(ImmutableID.of("id1"))
+                                                      .build();
+
+    private static final Person zoe = ImmutablePerson.builder()
+                                                     .firstName("Zoë").lastName("Ståhl😀").age(12)
+                                                     .build();
+
+    @Test
+    public void testRoundTripsInOneBuffer() {
+        for (final ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256)}) {
+            BinaryCodec.write(fred, buffer);
+            BinaryCodec.write(zoe, buffer);
+            BinaryCodec.write(ImmutableSSN.of("222-33-4444"), buffer);
+            BinaryCodec.write(ImmutableID.of("ïd"), buffer);
+            buffer.flip();
+
+            for (final BinaryCodec.Trust trust : BinaryCodec.Trust.values()) {
+                buffer.rewind();
+                assertThat(BinaryCodec.readPerson(buffer, trust).get(),is(fred));
+                assertThat(BinaryCodec.readPerson(buffer, trust).get(),is(zoe));
+                assertThat(BinaryCodec.readSSN(buffer, trust).get(),is(ImmutableSSN.of("222-33-4444")));
+                assertThat(BinaryCodec.readID(buffer, trust).get(),is(ImmutableID.of("ïd")));
+                assertThat(buffer.hasRemaining(),is(false));
+            }
+        }
+    }
+
+    @Test
+    public void testTrustedSkipsValidationAndUntrustedDoesNot() {
+        final Person unchecked = Checks.trusted(() -> ImmutablePerson.builder()
+                                                                     .firstName("John Jacob").lastName("Jingleheimerschmidt").age(20)
+                                                                     .setValueId(ImmutableID.of(" "))
+                                                                     .build());
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        BinaryCodec.write(unchecked, buffer);
+        buffer.flip();
+
+        assertThat(BinaryCodec.readPerson(buffer, BinaryCodec.Trust.TRUSTED).get(),is(unchecked));
+        buffer.rewind();
+        final Seq<Violation> violations = BinaryCodec.readPerson(buffer, BinaryCodec.Trust.UNTRUSTED).getError();
+        assertThat(violations,
+                   is(RawPerson.of(null, " ", "John Jacob", "Jingleheimerschmidt", 20).toPerson().getError()));
+    }
+
+    @Test
+    public void testCorruptRecordsAreRefused() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        BinaryCodec.write(fred, buffer);
+        buffer.flip();
+
+        buffer.put(10, (byte) (buffer.get(10) ^ 1));
+        assertThat(refusal(buffer, BinaryCodec.Trust.TRUSTED).startsWith("Record at 0 has checksum"),is(true));
+        buffer.put(10, (byte) (buffer.get(10) ^ 1));
+
+        buffer.put(0, (byte) (BinaryCodec.VERSION + 1));
+        assertThat(refusal(buffer, BinaryCodec.Trust.UNTRUSTED),is("Record at 0 has format version 2: expected 1."));
+        buffer.put(0, BinaryCodec.VERSION);
+
+        assertThat(Try.of(() -> BinaryCodec.readSSN(buffer, BinaryCodec.Trust.TRUSTED)).getCause().getMessage(),
+                   is("Record at 0 holds a Person: expected a SSN."));
+
+        buffer.limit(buffer.limit() - 1);
+        assertThat(refusal(buffer, BinaryCodec.Trust.TRUSTED),is("Record at 0 is truncated."));
+        assertThat(buffer.position(),is(0));
+    }
+
+    @Test
+    public void testWriteWithoutRoomLeavesBufferAlone() {
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        assertThat(Try.run(() -> BinaryCodec.write(fred, buffer)).getCause(),is(instanceOf(BufferOverflowException.class)));
+        assertThat(buffer.position(),is(0));
+    }
+
+    @Test
+    public void testAbsentAttributes() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        BinaryCodec.write(zoe, buffer);
+        buffer.flip();
+        final Person read = BinaryCodec.readPerson(buffer, BinaryCodec.Trust.TRUSTED).get();
+        assertThat(read.id(),is(Option.none()));
+        assertThat(read.ssn(),is(Option.none()));
+        assertThat(read.name(),is("Zoë Ståhl😀"));
+    }
+
+    private static String refusal(final ByteBuffer buffer, final BinaryCodec.Trust trust) {
+        return Try.of(() -> BinaryCodec.readPerson(buffer, trust)).getCause().getMessage();
+    }
+}
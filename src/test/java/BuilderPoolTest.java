@@ -0,0 +1,61 @@
+import org.junit.Test;
+
+import io.vavr.control.Option;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class BuilderPoolTest {
+
+    @Test
+    public void testBuilderReusedAndCleared() {
+        final BuilderPool<ImmutableSSN.Builder> pool = new BuilderPool<>(ImmutableSSN::builder, ImmutableSSN.Builder::clear);
+
+        final ImmutableSSN.Builder builder = pool.borrow();
+        assertThat(builder.ssn("111-22-3333").build(),is(ImmutableSSN.of("111-22-3333")));
+        pool.release(builder);
+
+        final ImmutableSSN.Builder again = pool.borrow();
+        assertThat(again,is(sameInstance(builder)));
+        try {
+            again.build();
+            fail("cleared builder still holds the last ssn");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage(),containsString("ssn"));
+        } finally {
+            pool.release(again);
+        }
+    }
+
+    @Test
+    public void testReentrantBorrowGetsFreshBuilder() {
+        final BuilderPool<ImmutableID.Builder> pool = new BuilderPool<>(ImmutableID::builder, ImmutableID.Builder::clear);
+
+        final ImmutableID.Builder outer = pool.borrow();
+        final ImmutableID.Builder inner = pool.borrow();
+        assertThat(inner,is(not(sameInstance(outer))));
+        pool.release(inner);
+        assertThat(pool.borrow(),is(not(sameInstance(outer)))); // outer's still out
+        pool.release(outer);
+        assertThat(pool.borrow(),is(sameInstance(outer)));
+    }
+
+    @Test
+    public void testNoStateLeaksBetweenPooledBuilds() {
+        final SSN ssn = SSN.buildViolations("111-22-3333").get();
+        final ID id = ID.buildViolations("7").get();
+
+        assertThat(Person.buildViolations(Option.some(ssn), Option.some(id), "Fred", "Flintstone", 40).get(),
+                   is(ImmutablePerson.builder().firstName("Fred").lastName("Flintstone").age(40)
+                                     .setValueSsn(ssn).setValueId(id).build()));
+        // the SSN and ID from the build before must not carry over
+        final Person child = Person.buildViolations(Option.none(), Option.none(), "Pebbles", "Stone", 2).get();
+        assertThat(child.ssn(),is(Option.none()));
+        assertThat(child.id(),is(Option.none()));
+
+        assertThat(SSN.buildViolations("1").getError().head().message(),
+                   is("'SSN' parameter containing string '1' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'."));
+        assertThat(SSN.buildViolations("222-33-4444").get(),is(ImmutableSSN.of("222-33-4444")));
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Try;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class BulkValidatorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // every third row has a blank ID
+    private static RawPerson row(final int i) {
+        return RawPerson.of("111-22-3333", i % 3 == 0 ? "" : "id-" + i, "P" + i, "Ricardo", 20);
+    }
+
+    @Test
+    public void testResultsKeepInputOrder() {
+        final List<Validation<Seq<Violation>, Person>> results =
+                new BulkValidator(executor, 64, 4)
+                        .validatePersons(IntStream.range(0, 10_000).mapToObj(BulkValidatorTest::row))
+                        .collect(Collectors.toList());
+
+        assertThat(results.size(),is(10_000));
+        for (int i = 0; i < results.size(); i++) {
+            final Validation<Seq<Violation>, Person> result = results.get(i);
+            if (i % 3 == 0) {
+                assertThat(result.isInvalid(),is(true));
+                assertThat(Validations.combineViolations(result.getError()),is("ID is blank: must not be blank."));
+            } else {
+                assertThat(result.get().firstName(),is("P" + i));
+            }
+        }
+    }
+
+    @Test
+    public void testSinksSeeRowNumbers() {
+        final List<Person> valid = new ArrayList<>();
+        final List<Long> invalidRows = new ArrayList<>();
+        final long rows = new BulkValidator(executor, 7, 3).validatePersons(
+                IntStream.range(0, 100).mapToObj(BulkValidatorTest::row).collect(Collectors.toList()),
+                valid::add,
+                (violations, row) -> invalidRows.add(row));
+
+        assertThat(rows,is(100L));
+        assertThat(valid.size(),is(66));
+        assertThat(invalidRows.size(),is(34));
+        assertThat(invalidRows.get(0),is(0L));
+        assertThat(invalidRows.get(33),is(99L));
+    }
+
+    @Test
+    public void testRuleSetCarriedToWorkers() {
+        final RuleSet shortNames = RuleSet.of(1, 8, 17, null);
+        final List<Long> invalidRows = new ArrayList<>();
+        final long rows = shortNames.apply(() -> new BulkValidator(executor, 7, 3).validatePersons(
+                IntStream.range(1, 100).mapToObj(i -> RawPerson.of("111-22-3333", "id-" + i, "P" + i, "Ricardo", 20))
+                         .collect(Collectors.toList()),
+                person -> {},
+                (violations, row) -> invalidRows.add(row))).value();
+
+        // every name, from "P1 Ricardo" on, exceeds 8 characters; none would under DEFAULTS
+        assertThat(rows,is(99L));
+        assertThat(invalidRows.size(),is(99));
+    }
+
+    @Test
+    public void testReadAheadIsBounded() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final Iterator<RawPerson> endless = new Iterator<RawPerson>() {
+            @Override public boolean hasNext() {return true;}
+            @Override public RawPerson next() {return row(pulled.getAndIncrement());}
+        };
+
+        final Iterator<Validation<Seq<Violation>, Person>> results =
+                new BulkValidator(executor, 10, 3).validate(endless, RawPerson::toPerson);
+        for (int i = 0; i < 1000; i++) {
+            results.next();
+            assertThat("read too far ahead of the consumer", pulled.get() <= i + 10 * (3 + 1), is(true));
+        }
+    }
+
+    @Test
+    public void testRowValidationFailurePropagates() {
+        final Try<Long> count = Try.of(() -> new BulkValidator(executor, 10, 3).validate(
+                IntStream.range(0, 100).boxed().collect(Collectors.toList()),
+                i -> {
+                    if (i == 42) {
+                        throw new IllegalArgumentException("row 42");
+                    }
+                    return Validation.valid(i);
+                },
+                i -> {},
+                (e, row) -> {}));
+
+        assertThat(count.isFailure(),is(true));
+        assertThat(count.getCause(),is(instanceOf(IllegalArgumentException.class)));
+        assertThat(count.getCause().getMessage(),is("row 42"));
+    }
+}
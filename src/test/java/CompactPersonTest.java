@@ -0,0 +1,40 @@
+import org.junit.Test;
+
+import io.vavr.control.Option;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class CompactPersonTest {
+
+    private static final Person fred = RawPerson.of("111-22-3333", "7", "Fred", "Flintstone", 40).toPerson().get();
+    private static final Person pebbles = RawPerson.of(null, null, "Pebbles", "Stone", 2).toPerson().get();
+
+    @Test
+    public void testSameValuesAsOriginal() {
+        for (final Person person : new Person[]{fred, pebbles}) {
+            final Person compact = person.compact();
+            assertThat(compact,is(instanceOf(CompactPerson.class)));
+            assertThat(compact.id(),is(person.id()));
+            assertThat(compact.ssn(),is(person.ssn()));
+            assertThat(compact.name(),is(person.name()));
+            assertThat(compact.age(),is(person.age()));
+            assertThat(compact.compact(),is(sameInstance(compact)));
+        }
+        assertThat(pebbles.compact().ssn(),is(Option.none()));
+        assertThat(fred.compact().ssn().get().toString(),is("111-22-3333"));
+    }
+
+    @Test
+    public void testEqualToEveryLayout() {
+        final Person compact = fred.compact();
+        assertThat(compact,is(fred));
+        assertThat(fred,is(compact));
+        assertThat(compact.hashCode(),is(fred.hashCode()));
+        assertThat(compact.toString(),is(fred.toString()));
+        assertThat(fred.toString(),is("Person{id=Some(7), firstName=Fred, lastName=Flintstone, age=40, ssn=Some(111-22-3333)}"));
+        assertThat(compact,is(not(pebbles.compact())));
+        assertThat(ImmutablePerson.copyOf(compact),is(fred));
+    }
+}
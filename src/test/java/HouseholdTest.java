@@ -0,0 +1,129 @@
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class HouseholdTest {
+
+    @After
+    public void uninstall() {
+        Metrics.uninstall();
+    }
+
+    private static Person person(final String id, final String ssn, final String firstName) {
+        return RawPerson.of(ssn, id, firstName, "Flintstone", 40).toPerson().get();
+    }
+
+    private static Household household(final int members) {
+        HashMap<ID, Person> people = HashMap.empty();
+        for (int i = 0; i < members; i++) {
+            final Person person = person("p" + i, String.format("111-22-%04d", i), "Fred");
+            people = people.put(person.id().get(), person);
+        }
+        return ImmutableHousehold.builder().members(people).build();
+    }
+
+    @Test
+    public void testViolationsLocatedByKey() {
+        final Person fred = person("a", "111-22-3333", "Fred");
+        final Person wilma = person("b", "111-22-3333", "Wilma");
+        final Person dino = Checks.trusted(() -> ImmutablePerson.copyOf(person("c", "222-33-4444", "Dino")).withAge(-1));
+
+        final Validation<Seq<Violation>, Household> household = Household.buildViolations(
+                ImmutableHousehold.builder().putMembers(fred.id().get(), fred).putMembers(dino.id().get(), dino)
+                                  .putMembers(wilma.id().get(), wilma));
+
+        assertThat(household.getError().map(Violation::toString).toList().sorted(),is(List.of(
+                "members[b]: ssn '111-22-3333' is a duplicate: also held by members[a].",
+                "members[c]: age value -1 is out of range: must be between 0 and 150.")));
+    }
+
+    @Test
+    public void testNewVersionChecksOnlyChangedMember() {
+        final Household household = household(1000);
+        final Person bamm = person("p7", "333-44-5555", "Bamm");
+        final Person clash = person("p8", "111-22-0009", "Betty");
+        final Person dino = person("q1", "111-22-0007", "Dino");
+
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        Metrics.install(metrics);
+        final Household replaced = household.withMember(bamm).get();
+        assertThat(replaced.members().size(),is(1000));
+        assertThat(replaced.members().get(bamm.id().get()),is(Option.some(bamm)));
+        assertThat(metrics.latency("Person").count(),is(1L));
+
+        // p8 takes p9's SSN
+        assertThat(replaced.withMember(clash).getError().map(Violation::toString).toList(),is(List.of(
+                "members[p8]: ssn '111-22-0009' is a duplicate: also held by members[p9].")));
+        // p7's old SSN is free again, and the next version builds on the last
+        final Household next = replaced.withoutMember(bamm.id().get()).get()
+                                       .withMember(dino).get();
+        assertThat(next.members().size(),is(1000));
+        assertThat(metrics.latency("Person").count(),is(3L));
+        assertThat(next,is(ImmutableHousehold.copyOf(next)));
+    }
+
+    @Test
+    public void testCopiedVerdictRedone() {
+        final Household household = household(3);
+        final Person wilma = person("p9", "111-22-0001", "Wilma");
+
+        // withMembers() copies along the verdict on the members it replaces
+        try {
+            ImmutableHousehold.copyOf(household).withMembers(household.members().put(wilma.id().get(), wilma));
+            fail("duplicate SSN accepted");
+        } catch (final IllegalStateException e) {
+            assertThat(e.getMessage(),containsString("ssn '111-22-0001' is a duplicate: also held by members[p1]."));
+        }
+    }
+
+    @Test
+    public void testVerdictRedoneUnderOtherRuleSet() {
+        final Household household = household(10);
+        final RuleSet shortNames = RuleSet.of(1, 5, 17, null);
+
+        final Validation<Seq<Violation>, Household> copied = Checks.under(shortNames,
+                () -> Household.buildViolations(ImmutableHousehold.builder().from(household)));
+        final Validation<Seq<Violation>, Household> fresh = Checks.under(shortNames,
+                () -> Household.buildViolations(ImmutableHousehold.builder().members(household.members())));
+        assertThat(copied.getError().length(),is(10));
+        assertThat(copied.getError().map(Violation::toString).toList().sorted(),
+                   is(fresh.getError().map(Violation::toString).toList().sorted()));
+    }
+
+    @Test
+    public void testOtherRuleSetChecksEveryMember() {
+        final Household household = household(3);
+        final Person fred = person("p9", "222-33-4444", "Fred");
+        final RuleSet shortNames = RuleSet.of(1, 12, 17, null);
+
+        final Validation<Seq<Violation>, Household> next = shortNames.apply(() -> household.withMember(fred)).value();
+        assertThat(next.getError().length(),is(4));
+        assertThat(next.getError().head().toString(),endsWith("exceeds maximum name length of 12 characters."));
+    }
+
+    @Test
+    public void testSeqUpdatedByIndex() {
+        final ElementValidator<Person> rules = Household.MEMBERS;
+        final Vector<Person> people = Vector.of(person("a", "111-22-3333", "Fred"), person("b", "222-33-4444", "Wilma"));
+        final ElementValidator.Verdict<Integer, Person> verdict = rules.validate("people", people);
+        assertThat(verdict.isValid(),is(true));
+
+        // swapping SSNs between two elements is fine; appending a third with one of them is not
+        final Vector<Person> swapped = people.update(0, person("a", "222-33-4444", "Fred"))
+                                             .update(1, person("b", "111-22-3333", "Wilma"));
+        final ElementValidator.Verdict<Integer, Person> next = verdict.update(people, swapped, List.of(0, 1));
+        assertThat(next.isValid(),is(true));
+        final Vector<Person> appended = swapped.append(person("c", "111-22-3333", "Dino"));
+        assertThat(next.update(swapped, appended, List.of(2)).violations().map(Violation::toString).toList(),is(List.of(
+                "people[2]: ssn '111-22-3333' is a duplicate: also held by people[1].")));
+    }
+}
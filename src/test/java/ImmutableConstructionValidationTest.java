@@ -1,8 +1,10 @@
+import java.util.Arrays;
 import java.util.Optional;
 
 import org.junit.Test;
 
 import io.vavr.Function2;
+import io.vavr.collection.Seq;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import io.vavr.control.Validation;
@@ -24,6 +26,28 @@ public class ImmutableConstructionValidationTest {
         assertThat(pt.getCause().getMessage(),is("Cannot build Person, some of required attributes are not set [age]"));
     }
 
+    @Test
+    public void testBuildValidationRequiredAttributeMissing() {
+
+        final Validation<String, Person> pv =
+                Person.buildValidation(ImmutablePerson.builder().firstName("Fred").lastName("Mertz"));
+        assertThat(pv.isInvalid(),is(true));
+        assertThat(pv.getError(),is("Cannot build Person, some of required attributes are not set [age]"));
+    }
+
+    @Test
+    public void testBuildValidationDoesNotDisturbCheck() {
+
+        final Validation<String, Person> pv =
+                Person.buildValidation(ImmutablePerson.builder().firstName("Lucy").lastName("Ricardo").age(20));
+        assertThat(pv.isInvalid(),is(true));
+
+        // once buildValidation() is done, plain construction must throw again
+        final Try<Person> pt = Try.of(() -> ImmutablePerson.builder().firstName("Lucy").lastName("Ricardo").age(20).build());
+        assertThat(pt.isFailure(),is(true));
+        assertThat(pt.getCause(),is(instanceOf(IllegalStateException.class)));
+    }
+
     @Test
     public void testCheckMethodFindsInvalidField() {
 
@@ -80,6 +104,44 @@ public class ImmutableConstructionValidationTest {
 
     }
 
+    @Test
+    public void testMultipleViolationsAtOnce() {
+
+        final Validation<Seq<Violation>, Person> pv =
+                Person.buildViolations(
+                        ImmutablePerson.builder().firstName("John").lastName("Jacob Jingleheimerschmidt").age(20));
+        assertThat(pv.isInvalid(),is(true));
+        assertThat(pv.getError().map(Violation::rule).toJavaList(),
+                   is(Arrays.asList(RuleId.MAXIMUM_LENGTH, RuleId.ADULTS_REQUIRE_SSN)));
+        assertThat(pv.getError().map(Violation::parameterName).toJavaList(),is(Arrays.asList("name", "ssn")));
+        assertThat(Validations.combineViolations(pv.getError()),
+                   is("30 character name is too long: exceeds maximum name length of 16 characters. 20-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years."));
+    }
+
+    @Test
+    public void testFailFastStopsAtFirstViolation() {
+
+        final ImmutablePerson.Builder builder =
+                ImmutablePerson.builder().firstName("John").lastName("Jacob Jingleheimerschmidt").age(20);
+
+        final Validation<Seq<Violation>, Person> pv = Person.buildViolations(builder, ValidationPolicy.FAIL_FAST);
+        assertThat(pv.isInvalid(),is(true));
+        assertThat(pv.getError().map(Violation::rule).toJavaList(),is(Arrays.asList(RuleId.ADULTS_REQUIRE_SSN)));
+
+        // and the default is still to accumulate
+        assertThat(Person.buildViolations(builder).getError().size(),is(2));
+    }
+
+    @Test
+    public void testFailFastPerson2() {
+
+        final Validation<Seq<Violation>, Person2> pv = Person2.person2Violations(
+                Optional.empty(), "John", "Jacob Jingleheimerschmidt", 5, Optional.empty(), ValidationPolicy.FAIL_FAST);
+        assertThat(pv.isInvalid(),is(true));
+        assertThat(Validations.combineViolations(pv.getError()),
+                   is("30 character name is too long: exceeds maximum name length of 16 characters."));
+    }
+
     @Test
     public void testFromStringlyTypedToTypedErrors() {
         final Validation<String, Person> allValidation =
@@ -0,0 +1,86 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class InternerTest {
+
+    @Test
+    public void testEqualInputsShareOneInstance() {
+        final Interner<String,SSN> interner = Interner.weak(SSN::footprint);
+
+        final SSN first = SSN.buildViolations(new String("111-22-3333"), interner).get();
+        final SSN second = SSN.buildViolations(new String("111-22-3333"), interner).get();
+
+        assertThat(second,is(sameInstance(first)));
+        assertThat(interner.misses(),is(1L));
+        assertThat(interner.hits(),is(1L));
+        assertThat(interner.bytesSaved(),is(SSN.footprint(first)));
+    }
+
+    @Test
+    public void testInvalidInputsAreNotInterned() {
+        final Interner<String,ID> interner = Interner.bounded(10, ID::footprint);
+
+        final Validation<Seq<Violation>,ID> idv = ID.buildViolations("", interner);
+        assertThat(idv.isInvalid(),is(true));
+        assertThat(Validations.combineViolations(idv.getError()),is("ID is blank: must not be blank."));
+        assertThat(ID.buildViolations("", interner).isInvalid(),is(true));
+
+        assertThat(interner.size(),is(0));
+        assertThat(interner.hits(),is(0L));
+        assertThat(interner.misses(),is(2L));
+    }
+
+    @Test
+    public void testBoundedStaysBounded() {
+        final Interner<String,ID> interner = Interner.bounded(100, ID::footprint);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(ID.buildViolations("id-" + i, interner).isValid(),is(true));
+            assertThat(interner.size() <= 100,is(true));
+        }
+    }
+
+    @Test
+    public void testBoundedKeepsHotEntries() {
+        final Interner<String,ID> interner = Interner.bounded(100, ID::footprint);
+        final ID hot = ID.buildViolations("hot", interner).get();
+        for (int i = 0; i < 10_000; i++) {
+            ID.buildViolations("id-" + i, interner);
+            assertThat(ID.buildViolations("hot", interner).get(),is(sameInstance(hot)));
+        }
+        assertThat(interner.hits(),is(10_000L));
+        assertThat(interner.size() <= 100,is(true));
+    }
+
+    @Test
+    public void testConcurrentCallersAgreeOnCanonicalInstance() throws Exception {
+        final Interner<String,ID> interner = Interner.weak(ID::footprint);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<ID>> ids = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                ids.add(executor.submit(() -> ID.buildViolations(new String("shared"), interner).get()));
+            }
+            final ID canonical = ids.get(0).get();
+            for (final Future<ID> id : ids) {
+                assertThat(id.get(),is(sameInstance(canonical)));
+            }
+            assertThat(interner.hits() + interner.misses(),is(1000L));
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+}
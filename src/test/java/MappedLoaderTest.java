@@ -0,0 +1,152 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class MappedLoaderTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String CSV =
+            "111-22-3333,id1,Fred,Flintstone,40\n" +
+            "111-2x-3333,,Wilma,Flintstone,40\r\n" +
+            "\n" +
+            ",,Pebbles,Stone,2\n" +
+            ",id2,John Jacob,Jingleheimerschmidt,20\n" +
+            "222-33-4444,,Zoë,Ståhl,30\n" +
+            "333-44-5555,,Bam,Bam,old\n" +
+            "too,few,fields\n" +
+            "444-55-6666, ,Barney,Rubble,35";
+
+    private File write(final String content) throws IOException {
+        final File file = folder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    // byte offset of the row starting with start
+    private static int offset(final String start) {
+        return CSV.substring(0, CSV.indexOf(start)).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Test
+    public void testValidRowsAndInvalidOffsets() throws IOException {
+        final File file = write(CSV);
+        for (final int window : new int[]{64, 1 << 20}) {
+            final List<Person> valid = new ArrayList<>();
+            final List<String> invalid = new ArrayList<>();
+
+            final long rows = new MappedLoader(window).load(
+                    file.toPath(), valid::add,
+                    (violations, offset) -> invalid.add(offset + ": " + Validations.combineViolations(violations)));
+
+            assertThat(rows,is(8L));
+            assertThat(valid.size(),is(3));
+            assertThat(valid.get(0),is(ImmutablePerson.builder()
+                                                    .firstName("Fred").lastName("Flintstone").age(40)
+                                                    .setValueSsn(ImmutableSSN.of("111-22-3333"))
+                                                    .setValueId(ImmutableID.of("id1"))
+                                                    .build()));
+            assertThat(valid.get(1).name(),is("Pebbles Stone"));
+            assertThat(valid.get(2).name(),is("Zoë Ståhl")); // non-ASCII goes the String way
+            assertThat(invalid.get(0),
+                       is(offset("111-2x") + ": 'SSN' parameter containing string '111-2x-3333' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'." +
+                          " 40-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years."));
+            assertThat(invalid.get(1).startsWith(offset(",id2") + ": 30 character name is too long"),is(true));
+            assertThat(invalid.get(1).endsWith("violates SSN required if age > 17 years."),is(true));
+            assertThat(invalid.get(2),
+                       is(offset("333-44") + ": 'age' parameter containing string 'old' doesn't match pattern '-?\\d{1,9}'."));
+            assertThat(invalid.get(3),
+                       is(offset("too") + ": Row has 3 fields: expected 5 (ssn,id,firstName,lastName,age)."));
+            assertThat(invalid.get(4),is(offset("444-55") + ": ID is blank: must not be blank."));
+        }
+    }
+
+    @Test
+    public void testSameVerdictsAsParseRow() throws IOException {
+        for (final String line : CSV.split("\r?\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            final List<Object> loaded = new ArrayList<>();
+            new MappedLoader().load(write(line).toPath(), loaded::add, (violations, offset) -> loaded.add(violations));
+
+            final Object parsed = MappedLoader.parseRow(line).fold(violations -> violations, person -> person);
+            assertThat(line, loaded.get(0), is(parsed));
+        }
+    }
+
+    @Test
+    public void testLoadIntoTableWithoutStrings() throws IOException {
+        final PersonTable table = new PersonTable(2);
+        final List<Seq<Violation>> invalid = new ArrayList<>();
+
+        new MappedLoader(64).load(write(CSV).toPath(), table, (violations, offset) -> invalid.add(violations));
+
+        assertThat(table.size(),is(3));
+        assertThat(invalid.size(),is(5));
+        assertThat(table.row(0).packedSSN(),is(111223333));
+        assertThat(table.row(0).id(),is(Option.of(ImmutableID.of("id1"))));
+        assertThat(table.row(1).hasSSN(),is(false));
+        assertThat(table.row(1).hasId(),is(false));
+        assertThat(table.row(2).name(),is("Zoë Ståhl"));
+        assertThat(table.rowOf(ImmutableSSN.of("222-33-4444")),is(2));
+    }
+
+    @Test
+    public void testLimitsOfRuleSetInForce() throws IOException {
+        final File file = write("900-11-2222,,Al,Ox,40\n" +
+                                ",,Fred,Flintstone,2\n" +
+                                "111-22-3333,,Bo,Bo,40\n" +
+                                ",,Bo,Bo,16\n");
+        final RuleSet strict = RuleSet.of(1, 8, 15, "9\\d{2}-\\d{2}-\\d{4}");
+        final List<Person> valid = new ArrayList<>();
+        final List<String> invalid = new ArrayList<>();
+
+        strict.apply(() -> {
+            try {
+                return new MappedLoader().load(file.toPath(), valid::add,
+                                               (violations, offset) -> invalid.add(Validations.combineViolations(violations)));
+            } catch (final IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+
+        assertThat(valid.size(),is(1));
+        assertThat(valid.get(0).name(),is("Al Ox"));
+        assertThat(invalid.get(0),startsWith("15 character name is too long"));
+        assertThat(invalid.get(1),containsString("'111-22-3333'"));
+        assertThat(invalid.get(2),is("16-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 15 years."));
+
+        final PersonTable table = new PersonTable(2);
+        invalid.clear();
+        strict.apply(() -> {
+            try {
+                return new MappedLoader().load(file.toPath(), table, (violations, offset) -> invalid.add(violations.toString()));
+            } catch (final IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+        assertThat(table.size(),is(1));
+        assertThat(invalid.size(),is(3));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRowLongerThanWindow() throws IOException {
+        new MappedLoader(8).load(write(CSV).toPath(), person -> {}, (violations, offset) -> {});
+    }
+}
@@ -0,0 +1,71 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class MetricsTest {
+
+    private InMemoryMetrics metrics;
+
+    @Before
+    public void install() {
+        metrics = new InMemoryMetrics();
+        Metrics.install(metrics);
+    }
+
+    @After
+    public void uninstall() {
+        Metrics.uninstall();
+    }
+
+    @Test
+    public void testRulesCountedPerParameter() {
+        SSN.buildViolations(ImmutableSSN.builder().ssn("111-22-3333"));
+        SSN.buildViolations(ImmutableSSN.builder().ssn(""));
+
+        assertThat(metrics.passed(RuleId.NOT_BLANK, "SSN"),is(1L));
+        assertThat(metrics.failed(RuleId.NOT_BLANK, "SSN"),is(1L));
+        assertThat(metrics.passed(RuleId.MATCHES, "SSN"),is(1L));
+        assertThat(metrics.failed(RuleId.MATCHES, "SSN"),is(1L));
+        assertThat(metrics.failed(RuleId.NOT_BLANK, "ID"),is(0L));
+    }
+
+    @Test
+    public void testFailFastCountsOnlyRulesRun() {
+        Person.buildViolations(
+                ImmutablePerson.builder().firstName("").lastName("").age(20), ValidationPolicy.FAIL_FAST);
+
+        assertThat(metrics.failed(RuleId.ADULTS_REQUIRE_SSN, "ssn"),is(1L));
+        assertThat(metrics.passed(RuleId.NOT_BLANK, "name") + metrics.failed(RuleId.NOT_BLANK, "name"),is(0L));
+    }
+
+    @Test
+    public void testLatencyRecordedPerType() {
+        ImmutableID.of("1");
+        ID.buildViolations(ImmutableID.builder().id(" "));
+
+        final InMemoryMetrics.Histogram latency = metrics.latency("ID");
+        assertThat(latency.count(),is(2L));
+        assertThat(latency.invalid(),is(1L));
+        assertThat(latency.percentileNanos(100) >= latency.percentileNanos(50),is(true));
+    }
+
+    @Test
+    public void testStringAdaptersCounted() {
+        Validations.notBlank(" ", "first");
+
+        assertThat(metrics.failed(RuleId.NOT_BLANK, "first"),is(1L));
+    }
+
+    @Test
+    public void testNothingRecordedWhenUninstalled() {
+        Metrics.uninstall();
+        ImmutableID.of("1");
+
+        assertThat(metrics.latency("ID").count(),is(0L));
+        assertThat(metrics.passed(RuleId.NOT_BLANK, "ID"),is(0L));
+    }
+}
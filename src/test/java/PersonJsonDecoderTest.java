@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class PersonJsonDecoderTest {
+
+    private static Validation<Seq<Violation>, Person> decode(final String json) throws IOException {
+        return PersonJsonDecoder.decode(new StringReader(json));
+    }
+
+    private static List<String> located(final Validation<Seq<Violation>, Person> person) {
+        return person.getError().map(Violation::toString).toJavaList();
+    }
+
+    @Test
+    public void testValidPerson() throws IOException {
+        final Person person = decode("{\"firstName\": \"Fr\\u00e9d\", \"extra\": {\"a\": [1, {\"b\": null}], \"c\": true},\n" +
+                                     " \"lastName\": \"Flint\\\"stone\", \"age\": 40, \"id\": null, \"ssn\": \"111-22-3333\"}").get();
+
+        assertThat(person,is(ImmutablePerson.builder()
+                                            .firstName("Fréd").lastName("Flint\"stone").age(40)
+                                            .setValueSsn(ImmutableSSN.of("111-22-3333"))
+                                            .build()));
+        assertThat(person.id(),is(Option.none()));
+    }
+
+    @Test
+    public void testTwoPhaseViolationsWithPaths() throws IOException {
+        final Validation<Seq<Violation>, Person> person =
+                decode("{\"ssn\": \"111-2x-3333\", \"id\": \" \", \"firstName\": \"John Jacob\", \"lastName\": \"Jingleheimerschmidt\", \"age\": 20}");
+
+        assertThat(located(person),is(Arrays.asList(
+                "$.ssn: 'SSN' parameter containing string '111-2x-3333' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'.",
+                "$.id: ID is blank: must not be blank.",
+                "$: 30 character name is too long: exceeds maximum name length of 16 characters.",
+                "$.ssn: 20-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years.")));
+        // same violations, in the same order, as the String flow
+        assertThat(person.getError().map(Violation::message),
+                   is(RawPerson.of("111-2x-3333", " ", "John Jacob", "Jingleheimerschmidt", 20).toPerson().getError().map(Violation::message)));
+    }
+
+    @Test
+    public void testMistypedFields() throws IOException {
+        assertThat(located(decode("{\"ssn\": 111223333, \"firstName\": [\"Fred\"], \"lastName\": \"Flintstone\", \"age\": 40.5}")),
+                   is(Arrays.asList(
+                           "$.ssn: ssn is a number: expected a string.",
+                           "$.firstName: firstName is an array: expected a string.",
+                           "$.age: age is the number 40.5: expected an integer.",
+                           "$: Cannot build Person, some of required attributes are not set [firstName, age]")));
+        assertThat(located(decode("\"Fred\"")),is(Arrays.asList("$: person is a string: expected an object.")));
+    }
+
+    @Test
+    public void testArrayElementsDecodedOneAtATime() throws IOException {
+        final List<Person> valid = new ArrayList<>();
+        final List<String> invalid = new ArrayList<>();
+
+        final long elements = PersonJsonDecoder.decodeArray(
+                new StringReader("[{\"firstName\": \"Fred\", \"lastName\": \"Flintstone\", \"age\": 12}," +
+                                 " {\"firstName\": \"Wilma\", \"lastName\": \"Flintstone\", \"age\": 12, \"ssn\": \"1\"}," +
+                                 " 7]"),
+                valid::add,
+                (violations, index) -> invalid.add(index + " " + violations.mkString(" ")));
+
+        assertThat(elements,is(3L));
+        assertThat(valid.size(),is(1));
+        assertThat(invalid,is(Arrays.asList(
+                "1 $[1].ssn: 'SSN' parameter containing string '1' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'.",
+                "2 $[2]: person is a number: expected an object.")));
+    }
+
+    @Test
+    public void testLargeArrayStreams() throws IOException {
+        final int count = 100_000;
+        // generated as it's read, so the document never exists in full
+        final Reader persons = new Reader() {
+            private int next = -1;
+            private String pending = "[";
+            private int at;
+
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) {
+                if (at == pending.length()) {
+                    if (++next > count) {
+                        return -1;
+                    }
+                    pending = next == count ? "]" :
+                              (next > 0 ? "," : "") + "{\"firstName\": \"F" + next + "\", \"lastName\": \"Stone\", \"age\": 12}";
+                    at = 0;
+                }
+                final int n = Math.min(length, pending.length() - at);
+                pending.getChars(at, at + n, buffer, offset);
+                at += n;
+                return n;
+            }
+
+            @Override
+            public void close() {}
+        };
+        final long[] valid = new long[1];
+
+        assertThat(PersonJsonDecoder.decodeArray(persons, person -> valid[0]++, (violations, index) -> fail(violations.toString())),
+                   is((long) count));
+        assertThat(valid[0],is((long) count));
+    }
+
+    @Test
+    public void testMalformedJson() {
+        for (final String[] malformed : new String[][]{
+                {"{\"age\": 12", "Malformed JSON at character 10: expected ',' or '}'."},
+                {"{\"age\": 12} {}", "Malformed JSON at character 12: expected the end of the document."},
+                {"{\"age\" 12}", "Malformed JSON at character 8: expected ':'."},
+                {"{\"age\": 012}", "Malformed JSON at character 11: expected a number."}}) {
+            try {
+                decode(malformed[0]);
+                fail(malformed[0]);
+            } catch (final IOException e) {
+                assertThat(malformed[0], e.getMessage(), is(malformed[1]));
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class PersonTableTest {
+
+    private static Person person(final int i) {
+        return ImmutablePerson.builder()
+                .firstName("F" + i).lastName("Flintstöne").age(20 + i % 50)
+                .ssn(Option.of(ImmutableSSN.of(String.format("111-22-%04d", i))))
+                .id(i % 2 == 0 ? Option.of(ImmutableID.of("id" + i)) : Option.none())
+                .build();
+    }
+
+    @Test
+    public void testRowsReadBackAsPersons() {
+        final PersonTable table = new PersonTable(2); // forces growth
+        for (int i = 0; i < 100; i++) {
+            assertThat(table.add(person(i)),is(i));
+        }
+        assertThat(table.size(),is(100));
+        for (int i = 0; i < 100; i++) {
+            assertThat(ImmutablePerson.copyOf(table.row(i)),is(person(i)));
+        }
+        // a Row is a cursor, equal only to itself; compact() takes the value
+        final PersonTable.Row row = table.row(7);
+        assertThat(row.equals(table.row(7)),is(false));
+        assertThat(row.compact(),is(person(7)));
+        assertThat(table.row(8, row).equals(row),is(true));
+        // symmetric: a value equal to the row's isn't equal to the Row
+        assertThat(person(8).equals(row),is(false));
+        assertThat(row.compact().equals(row),is(false));
+        assertThat(row.equals(person(8)),is(false));
+    }
+
+    @Test
+    public void testRowsNotValidatedAgain() {
+        final PersonTable table = new PersonTable(4);
+        final Person person = person(2);
+        table.add(person);
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        Metrics.install(metrics);
+        try {
+            final PersonTable.Row row = table.row(0);
+            assertThat(row.id(),is(person.id()));
+            assertThat(row.ssn(),is(person.ssn()));
+            assertThat(metrics.latency("ID").count() + metrics.latency("SSN").count(),is(0L));
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testForEachReusesOneRow() {
+        final PersonTable table = new PersonTable(16);
+        for (int i = 0; i < 10; i++) {
+            table.add(person(i));
+        }
+        final PersonTable.Row[] seen = new PersonTable.Row[1];
+        final long[] ages = new long[1];
+        table.forEach(row -> {
+            assertThat(seen[0] == null || seen[0] == row,is(true));
+            seen[0] = row;
+            ages[0] += row.age();
+        });
+        assertThat(ages[0],is(245L));
+    }
+
+    @Test
+    public void testRowOfSSN() {
+        final PersonTable table = new PersonTable(4);
+        for (int i = 0; i < 1000; i++) {
+            table.add(person(i));
+        }
+        assertThat(table.rowOf(ImmutableSSN.of("111-22-0777")),is(777));
+        assertThat(table.rowOf(PackedSSN.of(111220777)),is(777));
+        assertThat(table.rowOf(ImmutableSSN.of("999-22-0777")),is(-1));
+        assertThat(table.row(777).packedSSN(),is(111220777));
+    }
+
+    @Test
+    public void testOnlyValidRawPersonsAdmitted() {
+        final PersonTable table = new PersonTable(4);
+
+        final Validation<Seq<Violation>,Integer> added = table.add(RawPerson.of(null, null, "Fred", "Flintstone", 12));
+        final Validation<Seq<Violation>,Integer> rejected = table.add(RawPerson.of(null, null, "Fred", "Flintstone", 30));
+
+        assertThat(added.get(),is(0));
+        assertThat(rejected.getError().head().rule(),is(RuleId.ADULTS_REQUIRE_SSN));
+        assertThat(table.size(),is(1));
+        assertThat(table.row(0).hasSSN(),is(false));
+        assertThat(table.row(0).id(),is(Option.none()));
+        assertThat(table.row(0).name(),is("Fred Flintstone"));
+    }
+
+    @Test
+    public void testClearKeepsNothing() {
+        final PersonTable table = new PersonTable(4);
+        for (int i = 0; i < 10; i++) {
+            table.add(person(i));
+        }
+        table.clear();
+        table.add(person(7));
+
+        assertThat(table.size(),is(1));
+        assertThat(table.rowOf(ImmutableSSN.of("111-22-0003")),is(-1));
+        assertThat(table.rowOf(ImmutableSSN.of("111-22-0007")),is(0));
+        assertThat(ImmutablePerson.copyOf(table.row(0)),is(person(7)));
+    }
+}
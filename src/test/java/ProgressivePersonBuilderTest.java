@@ -0,0 +1,96 @@
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class ProgressivePersonBuilderTest {
+
+    private static List<String> messages(final Seq<Violation> violations) {
+        return violations.map(Violation::message).toJavaList();
+    }
+
+    @Test
+    public void testEachRuleRunsOnceItsAttributesAreSet() {
+        final ProgressivePersonBuilder person = new ProgressivePersonBuilder().age(20);
+        assertThat(person.violations().isEmpty(),is(true)); // adults-require-SSN waits for ssn
+
+        person.ssn("111-2x-3333");
+        assertThat(messages(person.violations("ssn")),is(Arrays.asList(
+                "'SSN' parameter containing string '111-2x-3333' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'.",
+                "20-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years.")));
+
+        person.firstName("John Jacob");
+        assertThat(person.violations("name").isEmpty(),is(true)); // waits for lastName
+        person.lastName("Jingleheimerschmidt");
+        assertThat(messages(person.violations("name")),is(Arrays.asList(
+                "30 character name is too long: exceeds maximum name length of 16 characters.")));
+
+        // setting an attribute again replaces the verdicts that depend on it, and only those
+        person.ssn("111-22-3333").lastName("Smith");
+        assertThat(person.violations().isEmpty(),is(true));
+        assertThat(person.age(151).violations("age").head().message(),
+                   is("age value 151 is out of range: must be between 0 and 150."));
+    }
+
+    @Test
+    public void testBuildMatchesTwoPhaseFlow() {
+        // between them, every one of Person's rules (and SSN's and ID's) passing and failing
+        final List<RawPerson> raws = Arrays.asList(
+                RawPerson.of("111-2x-3333", " ", "John Jacob", "Jingleheimerschmidt", 20), // SSN format, ID blank, name too long
+                RawPerson.of(null, null, "Fred", "Flintstone", 40),                        // adults-require-SSN
+                RawPerson.of(null, "7", "Pebbles", "Stone", 2),
+                RawPerson.of("111-22-3333", "7", " ", "", 200),                            // name blank, age range
+                RawPerson.of("911-22-3333", null, "Wilma", "Flintstone", -1),              // age range
+                RawPerson.of(null, null, "Bamm-Bamm", "Rubble", 16),
+                RawPerson.of("911-22-3333", "8", "Barney", "Rubble", 150));
+        for (final RuleSet rules : Arrays.asList(RuleSet.DEFAULTS, RuleSet.of(1, 10, 15, "9\\d{2}-\\d{2}-\\d{4}"))) {
+            for (final RawPerson raw : raws) {
+                final ProgressivePersonBuilder builder = new ProgressivePersonBuilder(rules)
+                        .firstName(raw.firstName()).lastName(raw.lastName()).age(raw.age()).id(raw.id());
+                if (null != raw.ssn()) {
+                    builder.ssn(raw.ssn()); // otherwise never set, so absent at build()
+                }
+                assertThat(rules + " " + raw, builder.build(), is(rules.apply(raw::toPerson).value()));
+            }
+        }
+    }
+
+    @Test
+    public void testBuildOnlyAssembles() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        Metrics.install(metrics);
+        try {
+            final ProgressivePersonBuilder builder =
+                    new ProgressivePersonBuilder().ssn("111-22-3333").firstName("Fred").lastName("Flintstone").age(40);
+            final Person person = builder.build().get();
+
+            assertThat(person.ssn(),is(Option.some(ImmutableSSN.of("111-22-3333"))));
+            assertThat(metrics.passed(RuleId.ADULTS_REQUIRE_SSN, "ssn"),is(1L));
+            assertThat(metrics.latency("Person").count(),is(0L)); // Person's validator never ran
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+
+    @Test
+    public void testPartialState() {
+        final ProgressivePersonBuilder builder = new ProgressivePersonBuilder().lastName("Flintstone");
+        assertThat(builder.missing().toJavaList(),is(Arrays.asList("firstName", "age")));
+        assertThat(messages(builder.id(" ").build().getError()),is(Arrays.asList(
+                "ID is blank: must not be blank.",
+                "Cannot build Person, some of required attributes are not set [firstName, age]")));
+        try {
+            builder.violations("nickname");
+            fail();
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage(),is("Person has no attribute 'nickname'."));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.vavr.collection.Seq;
+import io.vavr.collection.Stream;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class RejectionReportTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // row i: every 3rd an adult without an SSN, every 5th a malformed SSN, every 7th a blank ID
+    private static RawPerson row(final int i) {
+        final String ssn = 0 == i % 5 ? "111-2x-3333" : 0 == i % 3 ? null : "111-22-3333";
+        return RawPerson.of(ssn, 0 == i % 7 ? " " : "id" + i, "Fred", "Flintstone", 40);
+    }
+
+    @Test
+    public void testCountsByRuleParameterAndCombination() {
+        final List<RawPerson> rows = new ArrayList<>();
+        for (int i = 1; i <= 105; i++) {
+            rows.add(row(i));
+        }
+        final RejectionReport<RawPerson> report = new RejectionReport<>(3, 256, new SplittableRandom(1));
+        assertThat(new BulkValidator(executor, 8, 2).validatePersons(rows, report),is(105L));
+
+        // multiples of 3, 5 or 7 up to 105: 35 + 21 + 15 - 7 - 5 - 3 + 1
+        assertThat(report.rows(),is(105L));
+        assertThat(report.rejected(),is(57L));
+        assertThat(report.count(RuleId.MATCHES),is(21L));
+        assertThat(report.count(RuleId.MATCHES, "SSN"),is(21L));
+        assertThat(report.count(RuleId.MATCHES, "ID"),is(0L));
+        assertThat(report.count(RuleId.NOT_BLANK, "ID"),is(15L));
+        // SSN and ID name their own violations; adults without a valid SSN are multiples of 3 or 5
+        assertThat(report.count(RuleId.ADULTS_REQUIRE_SSN, "ssn"),is(49L));
+        assertThat(report.count(RuleId.ADULTS_REQUIRE_SSN),is(49L));
+
+        assertThat(report.count(EnumSet.of(RuleId.MATCHES, RuleId.ADULTS_REQUIRE_SSN)),is(21L - 3));
+        assertThat(report.count(EnumSet.of(RuleId.MATCHES, RuleId.ADULTS_REQUIRE_SSN, RuleId.NOT_BLANK)),is(3L));
+        assertThat(report.count(EnumSet.of(RuleId.NOT_BLANK)),is(15L - 7));
+        assertThat(report.count(EnumSet.of(RuleId.MATCHES)),is(0L));
+        assertThat(report.combinations().values().stream().mapToLong(Long::longValue).sum(),is(57L));
+        assertThat(report.combinations().keySet().iterator().next(),is(EnumSet.of(RuleId.ADULTS_REQUIRE_SSN)));
+
+        // samples are rows with the combination, in row order, and at most 3
+        final List<RejectionReport.Sample<RawPerson>> samples = report.samples(EnumSet.of(RuleId.NOT_BLANK));
+        assertThat(samples.size(),is(3));
+        for (final RejectionReport.Sample<RawPerson> sample : samples) {
+            assertThat(sample.input(),is(sameInstance(rows.get((int) sample.row()))));
+            assertThat(" ",is(sample.input().id()));
+            assertThat(0 != (sample.row() + 1) % 3 && 0 != (sample.row() + 1) % 5,is(true));
+        }
+        assertThat(samples.get(0).row() < samples.get(1).row() && samples.get(1).row() < samples.get(2).row(),is(true));
+        assertThat(report.toString(),containsString("ADULTS_REQUIRE_SSN"));
+    }
+
+    @Test
+    public void testSamplesStayBoundedAndUniform() {
+        final RejectionReport<Integer> report = new RejectionReport<>(10, 256, new SplittableRandom(42));
+        final Seq<Violation> violations = blank("id");
+        final int[] sampledByTenth = new int[10];
+        for (int trial = 0; trial < 200; trial++) {
+            final RejectionReport<Integer> trialReport = new RejectionReport<>(10, 256, new SplittableRandom(trial));
+            for (int i = 0; i < 10_000; i++) {
+                trialReport.rejected(i, i, violations);
+            }
+            for (final RejectionReport.Sample<Integer> sample : trialReport.samples(RuleId.NOT_BLANK)) {
+                sampledByTenth[(int) (sample.row() / 1_000)]++;
+            }
+        }
+        // 2000 samples over 10 tenths of the rows: each tenth gets about 200
+        for (final int sampled : sampledByTenth) {
+            assertThat(sampled > 140 && sampled < 260,is(true));
+        }
+
+        for (int i = 0; i < 1_000_000; i++) {
+            report.rejected(i, i, violations);
+        }
+        assertThat(report.count(RuleId.NOT_BLANK),is(1_000_000L));
+        assertThat(report.samples(RuleId.NOT_BLANK).size(),is(10));
+        assertThat(report.samples(EnumSet.of(RuleId.NOT_BLANK)).size(),is(10));
+    }
+
+    private static Seq<Violation> blank(final String parameterName) {
+        return Stream.of(Rules.notBlankViolation(" ", parameterName));
+    }
+
+    private static Seq<Violation> tooLong(final String parameterName) {
+        return Stream.of(Rules.maximumLengthViolation("Pebbles Flintstone", parameterName, 16));
+    }
+
+    @Test
+    public void testCombinationsCapped() {
+        final RejectionReport<String> report = new RejectionReport<>(1, 1, new SplittableRandom(7));
+        report.rejected("a", 0, blank("id"));
+        report.rejected("b", 1, blank("name").appendAll(tooLong("name")));
+        report.accepted();
+        report.rejected("c", 3, tooLong("name"));
+        report.rejected("d", 4, blank("name"));
+
+        assertThat(report.rows(),is(5L));
+        assertThat(report.rejected(),is(4L));
+        assertThat(report.count(RuleId.NOT_BLANK),is(3L));
+        assertThat(report.count(RuleId.NOT_BLANK, "id"),is(1L));
+        assertThat(report.count(RuleId.MAXIMUM_LENGTH, "name"),is(2L));
+        // the first combination seen is kept apart, the rest only counted
+        assertThat(report.combinations().size(),is(1));
+        assertThat(report.count(EnumSet.of(RuleId.NOT_BLANK)),is(2L));
+        assertThat(report.otherCombinations(),is(2L));
+        assertThat(report.count(EnumSet.of(RuleId.NOT_BLANK, RuleId.MAXIMUM_LENGTH)),is(0L));
+        // but every rule keeps its own samples
+        assertThat(report.samples(RuleId.MAXIMUM_LENGTH).size(),is(1));
+        assertThat(report.samples(EnumSet.of(RuleId.MATCHES)),is(Collections.emptyList()));
+    }
+
+    @Test
+    public void testViolationsWithoutParameter() {
+        final RejectionReport<String> report = new RejectionReport<>(1);
+        report.rejected("a", 0, Person.buildViolations(ImmutablePerson.builder().firstName("a")).getError());
+
+        assertThat(report.count(RuleId.REQUIRED_ATTRIBUTES),is(1L));
+        assertThat(report.count(RuleId.REQUIRED_ATTRIBUTES, null),is(1L));
+        assertThat(report.toString(),containsString("REQUIRED_ATTRIBUTES           1 rows, (none) 1"));
+    }
+}
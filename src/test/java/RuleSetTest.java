@@ -0,0 +1,162 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class RuleSetTest {
+
+    private static final RawPerson longNamedAdult = RawPerson.of(null, null, "John Jacob", "Jingleheimerschmidt", 20);
+
+    @Test
+    public void testTenantsGetTheirOwnLimits() {
+        final RuleSets rules = new RuleSets();
+        assertThat(rules.publish("acme", RuleSet.of(1, 30, 20, null)),is(true));
+
+        final RuleSet.Versioned<Validation<Seq<Violation>, Person>> acme = rules.get("acme").apply(longNamedAdult::toPerson);
+        assertThat(acme.version(),is(1L));
+        assertThat(acme.value().isValid(),is(true));
+
+        final RuleSet.Versioned<Validation<Seq<Violation>, Person>> other = rules.get("other").apply(longNamedAdult::toPerson);
+        assertThat(other.version(),is(0L));
+        assertThat(other.value().getError().map(Violation::message).toJavaList(),is(Arrays.asList(
+                "30 character name is too long: exceeds maximum name length of 16 characters.",
+                "20-year-old has no SSN (in 'ssn' parameter): violates SSN required if age > 17 years.")));
+        // and outside of apply(), the defaults
+        assertThat(longNamedAdult.toPerson().getError().length(),is(2));
+    }
+
+    @Test
+    public void testSSNPatternOnlyNarrowsFormat() {
+        final RuleSet rules = RuleSet.of(1, 16, 17, "9\\d{2}-\\d{2}-\\d{4}");
+
+        assertThat(rules.apply(() -> SSN.buildViolations("911-22-3333")).value().isValid(),is(true));
+        assertThat(rules.apply(() -> SSN.buildViolations("111-22-3333")).value().getError().map(Violation::message).toJavaList(),
+                   is(Arrays.asList("'SSN' parameter containing string '111-22-3333' doesn't match pattern '9\\d{2}-\\d{2}-\\d{4}'.")));
+        assertThat(rules.apply(() -> SSN.buildViolations("9112-2-3333")).value().getError().map(Violation::message).toJavaList(),
+                   is(Arrays.asList("'SSN' parameter containing string '9112-2-3333' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'.")));
+    }
+
+    @Test
+    public void testCachedAndInternedSSNsUnderNarrowerPattern() {
+        final RuleSet rules = RuleSet.of(1, 16, 17, "9\\d{2}-\\d{2}-\\d{4}");
+        final ValidationCache<String,Seq<Violation>,SSN> cache = new ValidationCache<>(10, ValidationCache.Eviction.LRU);
+        final Interner<String,SSN> interner = Interner.bounded(10, SSN::footprint);
+        assertThat(SSN.buildViolations("123-45-6789", cache).isValid(),is(true));
+        assertThat(SSN.buildViolations("123-45-6789", interner).isValid(),is(true));
+
+        final RuleSet.Versioned<Validation<Seq<Violation>,SSN>> cached = rules.apply(() -> SSN.buildViolations("123-45-6789", cache));
+        assertThat(cached.version(),is(1L));
+        assertThat(cached.value().getError().head().rule(),is(RuleId.MATCHES));
+        assertThat(rules.apply(() -> SSN.buildViolations("123-45-6789", interner)).value().isValid(),is(false));
+        // nor is what the narrower pattern found kept for DEFAULTS
+        assertThat(rules.apply(() -> SSN.buildViolations("911-22-3333", cache)).value().isValid(),is(true));
+        assertThat(cache.size(),is(1));
+        assertThat(interner.size(),is(1));
+    }
+
+    @Test
+    public void testPerson2AndPackedSSNUnderRuleSet() {
+        final RuleSet rules = RuleSet.of(1, 8, 15, "9\\d{2}-\\d{2}-\\d{4}");
+
+        assertThat(Person2.person2Validation(Optional.empty(), "Fred", "Flintstone", 16, Optional.empty()).isValid(),is(true));
+        final Validation<String, Person2> person2 = rules.apply(() -> Person2.person2Validation(
+                Optional.empty(), "Fred", "Flintstone", 16, Optional.empty())).value();
+        assertThat(person2.getError(),containsString("exceeds maximum name length of 8 characters."));
+        assertThat(person2.getError(),containsString("violates SSN required if age > 15 years."));
+
+        assertThat(PackedSSN.buildViolations("111-22-3333").isValid(),is(true));
+        assertThat(rules.apply(() -> PackedSSN.buildViolations("111-22-3333")).value().isValid(),is(false));
+        assertThat(rules.apply(() -> PackedSSN.buildViolations("911-22-3333")).value().isValid(),is(true));
+        assertThat(rules.apply(() -> Checks.buildViolations(() -> PackedSSN.of(111223333))).value().isValid(),is(false));
+    }
+
+    @Test
+    public void testLongVersionsAndIntLimits() throws IOException {
+        final Path file = Files.createTempFile("rules", ".properties");
+        try {
+            Files.write(file, "version=3000000000\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(RuleSet.load(file).version(),is(3_000_000_000L));
+
+            Files.write(file, "version=1\nname.maximumLength=4294967312\n".getBytes(StandardCharsets.UTF_8));
+            try {
+                RuleSet.load(file);
+                fail();
+            } catch (final IOException e) {
+                assertThat(e.getMessage(),endsWith("name.maximumLength is 4294967312: must be between -2147483648 and 2147483647."));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReloadFromFileOnlyMovesForward() throws IOException {
+        final Path file = Files.createTempFile("rules", ".properties");
+        try {
+            final RuleSets rules = new RuleSets();
+            Files.write(file, "version=2\nname.maximumLength=30\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(rules.reload("acme", file),is(true));
+            assertThat(rules.reload("acme", file),is(false)); // unchanged
+            assertThat(rules.get("acme").toString(),
+                       is("RuleSet(version=2, maximumNameLength=30, ssnRequiredAboveAge=17, ssnPattern=null)"));
+
+            Files.write(file, "version=1\nname.maximumLength=40\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(rules.reload("acme", file),is(false));
+            assertThat(rules.get("acme").maximumNameLength(),is(30));
+
+            Files.write(file, "version=3\nssn.requiredAboveAge=old\n".getBytes(StandardCharsets.UTF_8));
+            try {
+                rules.reload("acme", file);
+                fail();
+            } catch (final IOException e) {
+                assertThat(e.getMessage(),is(file + " is not a valid rule set: ssn.requiredAboveAge is 'old': expected an integer."));
+            }
+            assertThat(rules.get("acme").version(),is(2L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSwapsUnderLoadNeverMixVersions() throws Exception {
+        final RuleSets rules = new RuleSets();
+        final AtomicBoolean publishing = new AtomicBoolean(true);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // odd versions allow the 30 character name, even ones don't
+            final Runnable validate = () -> {
+                while (publishing.get()) {
+                    final RuleSet.Versioned<Validation<Seq<Violation>, Person>> person =
+                            rules.get("acme").apply(longNamedAdult::toPerson);
+                    assertThat(person.toString(), person.value().getError().length(), is(person.version() % 2 == 1 ? 1 : 2));
+                }
+            };
+            final Future<?>[] validators = {executor.submit(validate), executor.submit(validate), executor.submit(validate)};
+            for (int version = 1; version <= 2_000; version++) {
+                rules.publish("acme", RuleSet.of(version, version % 2 == 1 ? 30 : 16, 17, null));
+            }
+            publishing.set(false);
+            for (final Future<?> validator : validators) {
+                validator.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
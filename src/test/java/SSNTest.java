@@ -1,5 +1,8 @@
+import java.util.Collections;
+
 import org.junit.Test;
 
+import io.vavr.collection.Seq;
 import io.vavr.control.Try;
 import io.vavr.control.Validation;
 
@@ -36,4 +39,71 @@ public class SSNTest {
         assertThat(ssnv.getError(),is("'SSN' parameter containing string '111-2p-3333' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'."));
     }
 
+    @Test
+    public void testFactoryConstructionViolations() {
+        final Validation<Seq<Violation>,SSN> ssnv = SSN.buildViolations(ImmutableSSN.builder().ssn("111-2p-3333"));
+        assertThat(ssnv.isInvalid(),is(true));
+        assertThat(ssnv.getError().size(),is(1));
+        final Violation violation = ssnv.getError().head();
+        assertThat(violation.rule(),is(RuleId.MATCHES));
+        assertThat(violation.parameterName(),is("SSN"));
+        assertThat(violation.message(),is("'SSN' parameter containing string '111-2p-3333' doesn't match pattern '\\d{3}+-\\d{2}+-\\d{4}+'."));
+    }
+
+    @Test
+    public void testPackedGood() {
+        final Validation<String,SSN> ssnv = PackedSSN.buildValidation("012-34-5678");
+        assertThat(ssnv.isValid(),is(true));
+        assertThat(ssnv.get().toString(),is("012-34-5678"));
+        assertThat(ssnv.get().packed(),is(12345678));
+    }
+
+    @Test
+    public void testPackedBadHasSameMessages() {
+        for (final String bad : new String[] {"111-2p-3333", "", "111-22-33333", "111 22 3333", "\u0661\u0661\u0661-22-3333"}) {
+            assertThat(PackedSSN.buildValidation(bad).getError(),
+                       is(SSN.buildValidation(ImmutableSSN.builder().ssn(bad)).getError()));
+        }
+    }
+
+    @Test
+    public void testPackedOutOfRange() {
+        final Try<SSN> ssnt = Try.of(()->PackedSSN.of(1_000_000_000));
+        assertThat(ssnt.isFailure(),is(true));
+        assertThat(ssnt.getCause(),is(instanceOf(IllegalStateException.class)));
+        assertThat(ssnt.getCause().getMessage(),is("SSN value 1000000000 is out of range: must be between 0 and 999999999."));
+    }
+
+    @Test
+    public void testPackedEqualsStringBacked() {
+        final SSN packed = PackedSSN.of(111223333);
+        final SSN string = ImmutableSSN.of("111-22-3333");
+        assertThat(packed,is(string));
+        assertThat(string,is(packed));
+        assertThat(packed.hashCode(),is(string.hashCode()));
+        assertThat(packed.compareTo(ImmutableSSN.of("111-22-3334")) < 0,is(true));
+        assertThat(packed.equals(ImmutableSSN.of("111-22-3334")),is(false));
+    }
+
+    @Test
+    public void testUnpackableSSNsCompareByString() {
+        // only reachable built trusted; both pack to SSNFormat.INVALID
+        final SSN a = Checks.trusted(() -> ImmutableSSN.of("111-2x-3333"));
+        final SSN b = Checks.trusted(() -> ImmutableSSN.of("not an SSN"));
+        assertThat(a.packed(),is(SSNFormat.INVALID));
+        assertThat(a.equals(b),is(false));
+        assertThat(a,is(Checks.trusted(() -> ImmutableSSN.of("111-2x-3333"))));
+        assertThat(a.compareTo(b) < 0,is(true));
+        assertThat(b.compareTo(a) > 0,is(true));
+        assertThat(a.compareTo(ImmutableSSN.of("000-00-0000")) < 0,is(true));
+    }
+
+    @Test
+    public void testFailFastReportsOnlyBlank() {
+        final Validation<Seq<Violation>,SSN> ssnv =
+                SSN.buildViolations(ImmutableSSN.builder().ssn(" "), ValidationPolicy.FAIL_FAST);
+        assertThat(ssnv.getError().map(Violation::rule).toJavaList(),is(Collections.singletonList(RuleId.NOT_BLANK)));
+        assertThat(SSN.buildViolations(ImmutableSSN.builder().ssn(" ")).getError().size(),is(2));
+    }
+
 }
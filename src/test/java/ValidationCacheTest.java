@@ -0,0 +1,89 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class ValidationCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private ValidationCache<String,Seq<Violation>,SSN> cache(final int maximumSize, final ValidationCache.Eviction eviction) {
+        return new ValidationCache<>(maximumSize, 10, TimeUnit.SECONDS, eviction, now::get);
+    }
+
+    @Test
+    public void testHitsSkipValidation() {
+        final ValidationCache<String,Seq<Violation>,SSN> cache = cache(10, ValidationCache.Eviction.LRU);
+        final AtomicInteger validations = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            final Validation<Seq<Violation>,SSN> ssnv = cache.get("111-2p-3333", s -> {
+                validations.incrementAndGet();
+                return SSN.buildViolations(ImmutableSSN.builder().ssn(s));
+            });
+            assertThat(ssnv.isInvalid(),is(true));
+            assertThat(ssnv.getError().head().rule(),is(RuleId.MATCHES));
+        }
+        assertThat(validations.get(),is(1));
+        assertThat(cache.hits(),is(4L));
+        assertThat(cache.misses(),is(1L));
+    }
+
+    @Test
+    public void testValidResultsAreShared() {
+        final ValidationCache<String,Seq<Violation>,SSN> cache = cache(10, ValidationCache.Eviction.LRU);
+        final SSN first = SSN.buildViolations("111-22-3333", cache).get();
+        assertThat(SSN.buildViolations("111-22-3333", cache).get(),is(sameInstance(first)));
+    }
+
+    @Test
+    public void testEntriesExpire() {
+        final ValidationCache<String,Seq<Violation>,SSN> cache = cache(10, ValidationCache.Eviction.LRU);
+        SSN.buildViolations("111-22-3333", cache);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        SSN.buildViolations("111-22-3333", cache);
+
+        assertThat(cache.hits(),is(0L));
+        assertThat(cache.misses(),is(2L));
+        assertThat(cache.expirations(),is(1L));
+    }
+
+    @Test
+    public void testLruKeepsRecentlyUsed() {
+        final ValidationCache<String,Seq<Violation>,SSN> cache = cache(8, ValidationCache.Eviction.LRU);
+        now.set(1);
+        SSN.buildViolations("000-00-0000", cache);
+        for (int i = 1; i < 100; i++) {
+            now.incrementAndGet();
+            SSN.buildViolations("000-00-0000", cache); // keep it fresh
+            SSN.buildViolations(String.format("000-00-%04d", i), cache);
+            assertThat(cache.size() <= 8,is(true));
+        }
+        assertThat(cache.evictions() > 0,is(true));
+        final long hits = cache.hits();
+        SSN.buildViolations("000-00-0000", cache);
+        assertThat(cache.hits(),is(hits + 1));
+    }
+
+    @Test
+    public void testLfuKeepsFrequentlyUsed() {
+        final ValidationCache<String,Seq<Violation>,SSN> cache = cache(8, ValidationCache.Eviction.LFU);
+        for (int i = 0; i < 20; i++) {
+            SSN.buildViolations("999-99-9999", cache);
+        }
+        for (int i = 0; i < 100; i++) {
+            SSN.buildViolations(String.format("000-00-%04d", i), cache);
+        }
+        final long hits = cache.hits();
+        SSN.buildViolations("999-99-9999", cache);
+        assertThat(cache.hits(),is(hits + 1));
+    }
+}
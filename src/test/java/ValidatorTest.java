@@ -0,0 +1,113 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vavr.collection.Seq;
+import io.vavr.control.Validation;
+
+import static org.junit.Assert.*;
+
+import static org.hamcrest.CoreMatchers.*;
+
+public class ValidatorTest {
+
+    private static final Validator<String> validator = Validator.builder(String.class)
+            .attribute("content", s -> s, Validator.Cost.MODERATE, Rules.notBlank(), Rules.maximumLength(3))
+            .rule(RuleId.NOT_BLANK, "first", Validator.Cost.CHEAP,
+                  (s, parameterName) -> s.startsWith(" ") ? Violation.of(RuleId.NOT_BLANK, parameterName) : null)
+            .build();
+
+    @Test
+    public void testValidPassesTargetThrough() {
+        final String target = "abc";
+        assertThat(validator.violations(target, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(validator.validate(target).get(),is(sameInstance(target)));
+    }
+
+    @Test
+    public void testAccumulateReportsInDeclarationOrder() {
+        final Validation<Seq<Violation>,String> result = validator.validate("     ");
+        assertThat(result.getError().map(Violation::rule).toJavaList(),
+                   is(Arrays.asList(RuleId.NOT_BLANK, RuleId.MAXIMUM_LENGTH, RuleId.NOT_BLANK)));
+        assertThat(result.getError().map(Violation::parameterName).toJavaList(),
+                   is(Arrays.asList("content", "content", "first")));
+    }
+
+    @Test
+    public void testFailFastRunsCheapestFirst() {
+        final Seq<Violation> violations = validator.violations("     ", ValidationPolicy.FAIL_FAST);
+        assertThat(violations.size(),is(1));
+        assertThat(violations.head().parameterName(),is("first"));
+    }
+
+    @Test
+    public void testAttributeReadOncePerPass() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Validator<String> counting = Validator.builder(String.class)
+                .attribute("content", s -> {reads.incrementAndGet(); return s;}, Validator.Cost.CHEAP,
+                           Rules.notBlank(), Rules.maximumLength(3), Rules.maximumLength(2))
+                .build();
+
+        assertThat(counting.violations("abcd", ValidationPolicy.ACCUMULATE).size(),is(2));
+        assertThat(reads.get(),is(1));
+    }
+
+    @Test
+    public void testOnAppliesRulesToAnAttribute() {
+        final Validator<String[]> onFirst = validator.on(String[].class, row -> row[0]);
+
+        assertThat(onFirst.violations(new String[]{"abc", "     "}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(onFirst.violations(new String[]{"abcd", "abc"}, ValidationPolicy.ACCUMULATE).head().message(),
+                   is("4 character content is too long: exceeds maximum name length of 3 characters."));
+    }
+
+    @Test
+    public void testIncrementalRerunsOnlyChangedDependencies() {
+        final AtomicInteger reads = new AtomicInteger();
+        final Validator<String[]> pair = Validator.<String[]>builder("Pair")
+                .attribute("left", row -> {reads.incrementAndGet(); return row[0];}, Validator.Cost.CHEAP, Rules.notBlank())
+                .dependsOn(row -> row[0])
+                .attribute("right", row -> row[1], Validator.Cost.CHEAP, Rules.notBlank())
+                .dependsOn(row -> row[1])
+                .build();
+
+        assertThat(pair.incrementalViolations(new String[]{"a", "b"}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(reads.get(),is(1));
+
+        // only right changed: left isn't read again, and a bad right is still caught
+        assertThat(pair.incrementalViolations(new String[]{"a", "c"}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(pair.incrementalViolations(new String[]{"a", " "}, ValidationPolicy.FAIL_FAST).head().parameterName(),
+                   is("right"));
+        assertThat(reads.get(),is(1));
+
+        // the invalid one isn't remembered, and violations() always runs everything
+        assertThat(pair.incrementalViolations(new String[]{"a", "c"}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(pair.violations(new String[]{"a", "c"}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(reads.get(),is(2));
+
+        // once forgotten, the next check is a full pass
+        pair.forget();
+        assertThat(pair.incrementalViolations(new String[]{"a", "d"}, ValidationPolicy.ACCUMULATE),is(nullValue()));
+        assertThat(reads.get(),is(3));
+    }
+
+    @Test
+    public void testPersonCopiesSkipUnaffectedRules() {
+        final InMemoryMetrics metrics = new InMemoryMetrics();
+        final Person person = ImmutablePerson.builder().firstName("Lucy").lastName("Ricardo").age(20)
+                                             .setValueSsn(ImmutableSSN.of("100-10-1000")).build();
+        Metrics.install(metrics);
+        try {
+            final ImmutablePerson older = ImmutablePerson.copyOf(person).withAge(21);
+            assertThat(metrics.passed(RuleId.ADULTS_REQUIRE_SSN, "ssn"),is(1L));
+            assertThat(metrics.passed(RuleId.NOT_BLANK, "name"),is(0L));
+
+            older.withFirstName("Ricky");
+            assertThat(metrics.passed(RuleId.ADULTS_REQUIRE_SSN, "ssn"),is(1L));
+            assertThat(metrics.passed(RuleId.MAXIMUM_LENGTH, "name"),is(1L));
+        } finally {
+            Metrics.uninstall();
+        }
+    }
+}